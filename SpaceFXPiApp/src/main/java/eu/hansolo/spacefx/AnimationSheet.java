@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+
+/**
+ * Describes one sprite sheet animation. The frames are laid out row by row
+ * and shown for one World.TICK_NANOS each. The source offsets of all frames
+ * are computed once, so drawing a frame is a table lookup instead of
+ * stepping column and row counters.
+ */
+public final class AnimationSheet {
+    final int      id;
+    final String   name;
+    final double   frameWidth;
+    final double   frameHeight;
+    final double   frameCenter;
+    final int      columns;
+    final int      rows;
+    final int      noOfFrames;
+    final double[] srcX;
+    final double[] srcY;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param id         index of the sheet in World.ANIMATION_SHEETS
+     * @param name       the name of the sheet
+     * @param frameSize  width and height of one frame
+     * @param columns    number of frames per row
+     * @param rows       number of rows
+     */
+    AnimationSheet(final int id, final String name, final double frameSize, final int columns, final int rows) {
+        this.id          = id;
+        this.name        = name;
+        this.frameWidth  = frameSize;
+        this.frameHeight = frameSize;
+        this.frameCenter = frameSize * 0.5;
+        this.columns     = columns;
+        this.rows        = rows;
+        this.noOfFrames  = columns * rows;
+        this.srcX        = new double[noOfFrames];
+        this.srcY        = new double[noOfFrames];
+        for (int frame = 0 ; frame < noOfFrames ; frame++) {
+            srcX[frame] = (frame % columns) * frameWidth;
+            srcY[frame] = (frame / columns) * frameHeight;
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    public String getName() { return name; }
+
+    public int getNoOfFrames() { return noOfFrames; }
+
+    @Override public String toString() { return name; }
+}
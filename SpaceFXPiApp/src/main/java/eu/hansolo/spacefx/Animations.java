@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+
+
+/**
+ * Structure of arrays storage of all running sprite sheet animations like
+ * explosions and hits. Each animation refers to its AnimationSheet by id,
+ * moves with its own velocity and steps through the frames of the sheet, it
+ * is killed after the last frame. All animations are updated in one sweep
+ * over the arrays, no matter how many sheets are in use.
+ */
+public final class Animations extends EntityStore {
+    private final int[]    noOfFrames;
+    private final double[] frameWidth;
+    private final double[] frameHeight;
+                  double[] x;
+                  double[] y;
+                  double[] prevX;
+                  double[] prevY;
+                  double[] vX;
+                  double[] vY;
+                  double[] scale;
+                  int[]    sheet;
+                  int[]    frame;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param sheets          the sheets that can be played, indexed by their id
+     * @param initialCapacity the number of animations before the arrays grow
+     */
+    Animations(final String name, final AnimationSheet[] sheets, final int initialCapacity) {
+        super(name, initialCapacity);
+        this.noOfFrames  = new int[sheets.length];
+        this.frameWidth  = new double[sheets.length];
+        this.frameHeight = new double[sheets.length];
+        for (AnimationSheet animationSheet : sheets) {
+            noOfFrames[animationSheet.id]  = animationSheet.noOfFrames;
+            frameWidth[animationSheet.id]  = animationSheet.frameWidth;
+            frameHeight[animationSheet.id] = animationSheet.frameHeight;
+        }
+        this.x          = new double[getCapacity()];
+        this.y          = new double[getCapacity()];
+        this.prevX      = new double[getCapacity()];
+        this.prevY      = new double[getCapacity()];
+        this.vX         = new double[getCapacity()];
+        this.vY         = new double[getCapacity()];
+        this.scale      = new double[getCapacity()];
+        this.sheet      = new int[getCapacity()];
+        this.frame      = new int[getCapacity()];
+    }
+
+
+    // ******************** Methods *******************************************
+    int add(final AnimationSheet sheet, final double x, final double y, final double vX, final double vY, final double scale) {
+        final int index = allocate();
+        this.x[index]     = x;
+        this.y[index]     = y;
+        this.prevX[index] = x;
+        this.prevY[index] = y;
+        this.vX[index]    = vX;
+        this.vY[index]    = vY;
+        this.scale[index] = scale;
+        this.sheet[index] = sheet.id;
+        this.frame[index] = 0;
+        return index;
+    }
+
+    /**
+     * Moves all animations by their velocity times the given speed and steps
+     * them the given number of frames, the finished ones are killed.
+     * @param speed      the length of the tick relative to World.TICK_NANOS
+     * @param frameSteps the number of frames to step, frames are timed per World.TICK_NANOS
+     */
+    void update(final double speed, final int frameSteps) {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+        for (int i = 0 ; i < count ; i++) {
+            if (dead[i]) { continue; }
+            x[i]     += vX[i] * speed;
+            y[i]     += vY[i] * speed;
+            frame[i] += frameSteps;
+            if (frame[i] >= noOfFrames[sheet[i]]) {
+                frame[i] = 0;
+                kill(i);
+            }
+        }
+    }
+
+    @Override boolean isOutOfSight(final int index, final double width, final double height) {
+        final double w = frameWidth[sheet[index]] * scale[index];
+        final double h = frameHeight[sheet[index]] * scale[index];
+        return (x[index] + w < 0 && vX[index] <= 0) || (x[index] > width && vX[index] >= 0) ||
+               (y[index] + h < 0 && vY[index] <= 0) || (y[index] > height && vY[index] >= 0);
+    }
+
+    @Override void move(final int from, final int to) {
+        x[to]     = x[from];
+        y[to]     = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        vX[to]    = vX[from];
+        vY[to]    = vY[from];
+        scale[to] = scale[from];
+        sheet[to] = sheet[from];
+        frame[to] = frame[from];
+    }
+
+    @Override void resize(final int capacity) {
+        x     = Arrays.copyOf(x, capacity);
+        y     = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        vX    = Arrays.copyOf(vX, capacity);
+        vY    = Arrays.copyOf(vY, capacity);
+        scale = Arrays.copyOf(scale, capacity);
+        sheet = Arrays.copyOf(sheet, capacity);
+        frame = Arrays.copyOf(frame, capacity);
+    }
+}
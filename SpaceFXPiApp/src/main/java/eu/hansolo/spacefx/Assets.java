@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Loads the image resources in parallel on a pool of worker threads.
+ * Decoded and scaled pixels are stored as raw premultiplied BGRA in a sub
+ * directory of the cache directory per scaling factor. Later starts map these
+ * files into memory and copy them into the images without decoding or
+ * scaling the PNGs. The file names contain the size of the image, the
+ * version of the application and the length and modification time of the
+ * resource, so a new build or a re-exported PNG never hits a stale file and
+ * a cache directory can be shipped with a build. None of these needs the
+ * PNG to be read.
+ */
+public final class Assets {
+    private static final int             MAGIC   = 0x53465832; // SFX2
+    private static final int             HEADER  = 3 * Integer.BYTES;
+    private static final String          VERSION = versionOf(Assets.class.getPackage().getImplementationVersion());
+    private        final double          scalingFactor;
+    private        final Path            cacheDir;
+    private        final ExecutorService executor;
+    private        final AtomicInteger   decoded = new AtomicInteger();
+    private        final AtomicInteger   cached  = new AtomicInteger();
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param scalingFactor factor that is applied to the sizes of all images
+     * @param cacheDir      directory for the decoded pixels, null disables the cache
+     */
+    Assets(final double scalingFactor, final Path cacheDir) {
+        this.scalingFactor = scalingFactor;
+        this.cacheDir      = null == cacheDir ? null : cacheDir.resolve(Double.toString(scalingFactor));
+        this.executor      = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "SpaceFX Assets");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Loads the given resource in the background
+     * @param name   name of the resource next to this class
+     * @param width  width before scaling, the aspect ratio is preserved
+     * @param height height before scaling, the aspect ratio is preserved
+     */
+    CompletableFuture<Image> load(final String name, final double width, final double height) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return load0(name, width * scalingFactor, height * scalingFactor);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not load " + name, e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Prepares the given resource to be streamed in tiles. With the cache
+     * enabled the tiles are mapped from the cache file and the whole image is
+     * only decoded once to create that file.
+     * @param name       name of the resource next to this class
+     * @param width      width before scaling, the aspect ratio is preserved
+     * @param height     height before scaling, the aspect ratio is preserved
+     * @param tileHeight height of a tile in pixels after scaling
+     */
+    CompletableFuture<TiledBackground.TileSource> loadTiles(final String name, final double width, final double height, final int tileHeight) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                final URL  url       = urlOf(name);
+                final Path cacheFile = cacheFileOf(name, url, width * scalingFactor, height * scalingFactor);
+                if (null != cacheFile) {
+                    if (Files.isReadable(cacheFile)) {
+                        try {
+                            final TiledBackground.TileSource source = new MappedTileSource(cacheFile, tileHeight);
+                            cached.incrementAndGet();
+                            return source;
+                        } catch (IOException e) {
+                            // Fall back to decoding the resource and rewrite the cache
+                        }
+                    }
+                    final Image image = decode(url, width * scalingFactor, height * scalingFactor);
+                    try {
+                        writeCache(cacheFile, image);
+                        return new MappedTileSource(cacheFile, tileHeight);
+                    } catch (IOException e) {
+                        return new ImageTileSource(image, tileHeight);
+                    }
+                }
+                return new ImageTileSource(decode(url, width * scalingFactor, height * scalingFactor), tileHeight);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not load " + name, e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops the worker threads once all submitted images have been loaded
+     */
+    void shutdown() { executor.shutdown(); }
+
+    int getNoOfDecoded() { return decoded.get(); }
+
+    int getNoOfCached() { return cached.get(); }
+
+    private Image load0(final String name, final double width, final double height) throws IOException {
+        final URL  url       = urlOf(name);
+        final Path cacheFile = cacheFileOf(name, url, width, height);
+        if (null != cacheFile && Files.isReadable(cacheFile)) {
+            try {
+                final Image image = readCache(cacheFile);
+                cached.incrementAndGet();
+                return image;
+            } catch (IOException e) {
+                // Fall back to decoding the resource and rewrite the cache
+            }
+        }
+
+        final Image image = decode(url, width, height);
+        if (null != cacheFile) {
+            try {
+                writeCache(cacheFile, image);
+            } catch (IOException e) {
+                // The cache is optional, e.g. on a read only file system
+            }
+        }
+        return image;
+    }
+
+    private Image decode(final URL url, final double width, final double height) throws IOException {
+        final Image image;
+        try (InputStream stream = url.openStream()) {
+            image = new Image(stream, width, height, true, false);
+        }
+        if (image.isError()) { throw new IOException(image.getException()); }
+        decoded.incrementAndGet();
+        return image;
+    }
+
+    private Path cacheFileOf(final String name, final URL url, final double width, final double height) throws IOException {
+        if (null == cacheDir) { return null; }
+        final URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        // Opening the connection opens a stream on some protocols, it is closed without being read
+        try (InputStream stream = connection.getInputStream()) {
+            return cacheDir.resolve(String.format(Locale.ROOT, "%s_%dx%d_%s_%d_%d.bgra", name, (int) width, (int) height, VERSION,
+                                                  connection.getContentLengthLong(), connection.getLastModified()));
+        }
+    }
+
+    private static URL urlOf(final String name) throws IOException {
+        final URL url = Assets.class.getResource(name);
+        if (null == url) { throw new IOException("Resource not found"); }
+        return url;
+    }
+
+    // Running from the classes directory there is no manifest with a version
+    private static String versionOf(final String implementationVersion) { return null == implementationVersion ? "dev" : implementationVersion; }
+
+    /**
+     * Maps the cache file into memory and copies the pixels into a new image.
+     * The header holds the magic number, the width and the height followed by
+     * width * height * 4 bytes of premultiplied BGRA.
+     */
+    private static Image readCache(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER || buffer.getInt() != MAGIC) { throw new IOException("Not a pixel cache file"); }
+            final int width  = buffer.getInt();
+            final int height = buffer.getInt();
+            if (width <= 0 || height <= 0 || buffer.remaining() != (long) width * height * 4) { throw new IOException("Corrupt pixel cache file"); }
+            final WritableImage image = new WritableImage(width, height);
+            image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getByteBgraPreInstance(), buffer.slice(), width * 4);
+            return image;
+        }
+    }
+
+    private static void writeCache(final Path file, final Image image) throws IOException {
+        final int        width  = (int) image.getWidth();
+        final int        height = (int) image.getHeight();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER + width * height * 4);
+        buffer.putInt(MAGIC).putInt(width).putInt(height);
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getByteBgraPreInstance(), buffer.slice(), width * 4);
+
+        // Write to a temporary file first so that a crash never leaves a partial cache file behind
+        Files.createDirectories(file.getParent());
+        final Path tmp = Files.createTempFile(file.getParent(), "asset", ".tmp");
+        try {
+            Files.write(tmp, buffer.array());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Maps the given range of a cache file read only into memory
+     */
+    private static ByteBuffer map(final Path file, final long position, final long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (position + size > channel.size()) { throw new IOException("Corrupt pixel cache file"); }
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+    }
+
+    @Override public String toString() {
+        return new StringBuilder().append("Assets: decoded=").append(decoded.get()).append(", cached=").append(cached.get())
+                                  .append(", cacheDir=").append(cacheDir).toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Tiles that are mapped from a pixel cache file, the rows of a tile are
+     * stored one after the other so every tile is a single mapped region
+     */
+    private static final class MappedTileSource implements TiledBackground.TileSource {
+        private final Path file;
+        private final int  width;
+        private final int  height;
+        private final int  tileHeight;
+
+
+        MappedTileSource(final Path file, final int tileHeight) throws IOException {
+            final ByteBuffer header = map(file, 0, HEADER);
+            if (header.getInt() != MAGIC) { throw new IOException("Not a pixel cache file"); }
+            this.file       = file;
+            this.width      = header.getInt();
+            this.height     = header.getInt();
+            this.tileHeight = tileHeight;
+            if (width <= 0 || height <= 0 || Files.size(file) != HEADER + (long) width * height * 4) { throw new IOException("Corrupt pixel cache file"); }
+        }
+
+
+        @Override public int getTileHeight() { return tileHeight; }
+
+        @Override public int getNoOfTiles() { return (height + tileHeight - 1) / tileHeight; }
+
+        @Override public Image loadTile(final int index) throws IOException {
+            final int           rows  = Math.min(tileHeight, height - index * tileHeight);
+            final ByteBuffer    tile  = map(file, HEADER + (long) index * tileHeight * width * 4, (long) rows * width * 4);
+            final WritableImage image = new WritableImage(width, rows);
+            image.getPixelWriter().setPixels(0, 0, width, rows, PixelFormat.getByteBgraPreInstance(), tile, width * 4);
+            return image;
+        }
+    }
+
+    /**
+     * Tiles that are copied from a decoded image which stays in memory, only
+     * used if there is no cache
+     */
+    private static final class ImageTileSource implements TiledBackground.TileSource {
+        private final Image image;
+        private final int   tileHeight;
+
+
+        ImageTileSource(final Image image, final int tileHeight) {
+            this.image      = image;
+            this.tileHeight = tileHeight;
+        }
+
+
+        @Override public int getTileHeight() { return tileHeight; }
+
+        @Override public int getNoOfTiles() { return ((int) image.getHeight() + tileHeight - 1) / tileHeight; }
+
+        @Override public Image loadTile(final int index) {
+            final int rows = Math.min(tileHeight, (int) image.getHeight() - index * tileHeight);
+            return new WritableImage(image.getPixelReader(), 0, index * tileHeight, (int) image.getWidth(), rows);
+        }
+    }
+}
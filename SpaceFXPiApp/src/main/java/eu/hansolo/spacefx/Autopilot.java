@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+
+/**
+ * Steers the space ship instead of a player. An autopilot is called once per
+ * tick on the thread that ticks the world, right before the controls are
+ * applied, and may read the world and give the same commands as the keys.
+ * Input of an autopilot is recorded like player input. An autopilot must
+ * only be used with a single world at a time.
+ */
+public interface Autopilot {
+
+    /**
+     * Reads the world and gives commands for the next tick
+     * @param world    the world, must not be modified
+     * @param controls the controls that are applied to the world after this call
+     */
+    void steer(World world, Controls controls);
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+
+/**
+ * Runs many independent headless games in parallel on a ForkJoinPool and
+ * prints the distribution of the scores, the tick latency, the highest
+ * number of entities per store and the entities that reached the time to live
+ * of their store. Every game has its own world, controls and
+ * autopilot and a seed that is derived from the seed of the batch, so the
+ * results do not depend on the number of threads. Instead of the autopilot
+ * the games of an input journal can be replayed. The settings are read like
+ * in StressTest:
+ * <pre>
+ * config=FILE         properties file with the keys below
+ * games=100           number of games
+ * threads=N           number of worker threads, defaults to the number of cores
+ * maxticks=100000     ticks after which a game is stopped if it did not end before
+ * asteroids=15        number of asteroids
+ * enemies=5           number of enemies
+ * bossinterval=20     seconds between two enemy boss attacks
+ * crystalinterval=25  seconds between two crystal spawns
+ * invulnerable=false  the space ship does not lose lifes, games only end at maxticks
+ * seed=42             seed of the batch
+ * journal=FILE        replay all games of the input journal instead of using the autopilot
+ * </pre>
+ * Usage: java eu.hansolo.spacefx.BatchRunner games=500 bossinterval=10
+ */
+public final class BatchRunner {
+    private static final long NANOS_PER_SECOND = 1_000_000_000l;
+
+
+    // ******************** Constructors **************************************
+    private BatchRunner() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws IOException, InterruptedException, ExecutionException {
+        final Properties config = new Properties();
+        for (String arg : args) {
+            if (arg.startsWith("config=")) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(arg.substring(7)), StandardCharsets.UTF_8)) { config.load(reader); }
+            }
+        }
+        for (String arg : args) {
+            final int index = arg.indexOf('=');
+            if (index < 1) {
+                System.err.println("Ignoring argument " + arg + ", expected key=value");
+                continue;
+            }
+            config.setProperty(arg.substring(0, index), arg.substring(index + 1));
+        }
+
+        final int    threads         = Integer.parseInt(config.getProperty("threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+        final int    maxTicks        = Integer.parseInt(config.getProperty("maxticks", "100000"));
+        final int    noOfAsteroids   = Integer.parseInt(config.getProperty("asteroids", Integer.toString(World.DEFAULT_NO_OF_ASTEROIDS)));
+        final int    noOfEnemies     = Integer.parseInt(config.getProperty("enemies", Integer.toString(World.DEFAULT_NO_OF_ENEMIES)));
+        final double bossInterval    = Double.parseDouble(config.getProperty("bossinterval", Double.toString(World.DEFAULT_ENEMY_BOSS_INTERVAL / (double) NANOS_PER_SECOND)));
+        final double crystalInterval = Double.parseDouble(config.getProperty("crystalinterval", Double.toString(World.DEFAULT_CRYSTAL_INTERVAL / (double) NANOS_PER_SECOND)));
+        final boolean invulnerable   = Boolean.parseBoolean(config.getProperty("invulnerable", "false"));
+        final long   seed            = Long.parseLong(config.getProperty("seed", Long.toString(System.nanoTime())));
+        final String journal         = config.getProperty("journal");
+
+        final List<Callable<Result>> games = new ArrayList<>();
+        if (null == journal) {
+            final int              noOfGames = Integer.parseInt(config.getProperty("games", "100"));
+            final SplittableRandom seeds     = RandomStream.GAMES.create(seed);
+            for (int i = 0 ; i < noOfGames ; i++) {
+                final long gameSeed = seeds.nextLong();
+                games.add(() -> {
+                    final World world = new World(noOfAsteroids, noOfEnemies, gameSeed);
+                    world.setEnemyBossInterval((long) (bossInterval * NANOS_PER_SECOND));
+                    world.setCrystalInterval((long) (crystalInterval * NANOS_PER_SECOND));
+                    world.setInvulnerable(invulnerable);
+                    return play(world, new DodgeAndShootAutopilot(), maxTicks);
+                });
+            }
+            System.out.println(String.format(Locale.ROOT, "%d games with autopilot, %d asteroids, %d enemies, boss every %.1f s, crystal every %.1f s, seed %d",
+                                             noOfGames, noOfAsteroids, noOfEnemies, bossInterval, crystalInterval, seed));
+        } else {
+            // The journal is read once, each game starts at its own offset
+            final Path          file    = Paths.get(journal);
+            final byte[]        content = Files.readAllBytes(file);
+            final List<Integer> offsets = gameOffsetsOf(content);
+            for (int offset : offsets) { games.add(() -> replay(content, offset, maxTicks)); }
+            System.out.println(String.format(Locale.ROOT, "%d games from %s", offsets.size(), file));
+        }
+
+        // Run all games, the results are collected in the order of the games
+        final ForkJoinPool pool  = new ForkJoinPool(threads);
+        final long         start = System.nanoTime();
+        final List<Result> results = new ArrayList<>(games.size());
+        try {
+            for (Future<Result> future : pool.invokeAll(games)) { results.add(future.get()); }
+        } finally {
+            pool.shutdown();
+        }
+        final double seconds = (System.nanoTime() - start) / (double) NANOS_PER_SECOND;
+
+        final Histogram            scores         = new Histogram("score", "points");
+        final Histogram            lengths        = new Histogram("ticks", "ticks");
+        final Histogram            latency        = new Histogram("tick", "ns");
+        final Map<String, Integer> highWaterMarks = new LinkedHashMap<>();
+        final Map<String, Long>    expirations    = new LinkedHashMap<>();
+        long ticks      = 0;
+        int  unfinished = 0;
+        for (Result result : results) {
+            scores.record(result.score);
+            lengths.record(result.ticks);
+            latency.add(result.latency);
+            ticks += result.ticks;
+            if (!result.gameOver) { unfinished++; }
+            result.highWaterMarks.forEach((store, count) -> highWaterMarks.merge(store, count, Math::max));
+            result.expirations.forEach((store, count) -> expirations.merge(store, count, Long::sum));
+        }
+        System.out.println(String.format(Locale.ROOT, "%.2f s on %d threads, %d ticks, %.0f ticks/s, %d games unfinished after at most %d ticks",
+                                         seconds, threads, ticks, ticks / seconds, unfinished, maxTicks));
+        StressTest.print(System.out, scores, 1, "");
+        StressTest.print(System.out, lengths, 1, "");
+        StressTest.print(System.out, latency, 1_000.0, "us");
+        final StringBuilder marks = new StringBuilder("high water marks:");
+        highWaterMarks.forEach((store, count) -> marks.append(' ').append(store).append('=').append(count));
+        System.out.println(marks);
+        final StringBuilder expired = new StringBuilder("time to live expirations:");
+        expirations.forEach((store, count) -> expired.append(' ').append(store).append('=').append(count));
+        System.out.println(expired);
+    }
+
+    private static Result play(final World world, final Autopilot autopilot, final int maxTicks) {
+        final Controls  controls = new Controls();
+        final Histogram latency  = new Histogram("tick", "ns");
+        int ticks = 0;
+        while (!world.isGameOver() && ticks < maxTicks) {
+            final long tickStart = System.nanoTime();
+            autopilot.steer(world, controls);
+            controls.applyTo(world);
+            world.tick(World.TICK_NANOS);
+            latency.record(System.nanoTime() - tickStart);
+            ticks++;
+        }
+        return new Result(world, ticks, latency);
+    }
+
+    private static Result replay(final byte[] journal, final int offset, final int maxTicks) {
+        try (InputJournal.Player player = new InputJournal.Player(journal, offset)) {
+            player.nextGame();
+            final World     world    = player.createWorld();
+            final Controls  controls = new Controls();
+            final Histogram latency  = new Histogram("tick", "ns");
+            int ticks = 0;
+            while (!world.isGameOver() && ticks < maxTicks && player.nextTick(controls)) {
+                final long tickStart = System.nanoTime();
+                controls.applyTo(world);
+                world.tick(player.getTickNanos());
+                latency.record(System.nanoTime() - tickStart);
+                ticks++;
+            }
+            return new Result(world, ticks, latency);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Integer> gameOffsetsOf(final byte[] journal) throws IOException {
+        final List<Integer> offsets = new ArrayList<>();
+        try (InputJournal.Player player = new InputJournal.Player(journal, 0)) {
+            while (player.nextGame()) { offsets.add(player.getGameOffset()); }
+        }
+        return offsets;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Result {
+        final long                 score;
+        final int                  ticks;
+        final boolean              gameOver;
+        final Histogram            latency;
+        final Map<String, Integer> highWaterMarks;
+        final Map<String, Long>    expirations;
+
+
+        Result(final World world, final int ticks, final Histogram latency) {
+            this.score          = world.getScore();
+            this.ticks          = ticks;
+            this.gameOver       = world.isGameOver();
+            this.latency        = latency;
+            this.highWaterMarks = new LinkedHashMap<>();
+            this.expirations    = new LinkedHashMap<>();
+            for (EntityStore store : world.getStores()) {
+                highWaterMarks.put(store.getName(), store.getHighWaterMark());
+                expirations.put(store.getName(), store.getExpirations());
+            }
+        }
+    }
+}
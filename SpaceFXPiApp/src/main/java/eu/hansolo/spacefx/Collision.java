@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+
+
+/**
+ * Circle collision tests that compare squared distances instead of calling
+ * Math.sqrt(). Next to the test of a single pair there are batch tests of one
+ * circle against the primitive arrays of a store which write the indices of
+ * the hits into a reusable buffer in ascending order.
+ */
+final class Collision {
+    private int[] result;
+
+
+    // ******************** Constructors **************************************
+    Collision() {
+        result = new int[64];
+    }
+
+
+    // ******************** Methods *******************************************
+    static boolean isHit(final double c1X, final double c1Y, final double c1R, final double c2X, final double c2Y, final double c2R) {
+        final double distX = c1X - c2X;
+        final double distY = c1Y - c2Y;
+        final double radii = c1R + c2R;
+        return distX * distX + distY * distY <= radii * radii;
+    }
+
+    /**
+     * Tests the given circle against the first count circles of the arrays
+     * which all have the same radius.
+     * @return the number of hits that are stored in getResult()
+     */
+    int hits(final double cX, final double cY, final double cR, final double[] x, final double[] y, final double r, final int count) {
+        ensureCapacity(count);
+        final double radii    = cR + r;
+        final double radiiSq  = radii * radii;
+        int          noOfHits = 0;
+        for (int i = 0 ; i < count ; i++) {
+            final double distX = x[i] - cX;
+            final double distY = y[i] - cY;
+            // Branch free, the index is always written but only kept on a hit
+            result[noOfHits] = i;
+            noOfHits += distX * distX + distY * distY <= radiiSq ? 1 : 0;
+        }
+        return noOfHits;
+    }
+
+    /**
+     * Tests the given circle against the circles with the given ids, e.g. the
+     * candidates of a SpatialHash query.
+     * @return the number of hits that are stored in getResult()
+     */
+    int hits(final double cX, final double cY, final double cR, final double[] x, final double[] y, final double r, final int[] ids, final int noOfIds) {
+        ensureCapacity(noOfIds);
+        final double radii    = cR + r;
+        final double radiiSq  = radii * radii;
+        int          noOfHits = 0;
+        for (int i = 0 ; i < noOfIds ; i++) {
+            final int    id    = ids[i];
+            final double distX = x[id] - cX;
+            final double distY = y[id] - cY;
+            result[noOfHits] = id;
+            noOfHits += distX * distX + distY * distY <= radiiSq ? 1 : 0;
+        }
+        return noOfHits;
+    }
+
+    int[] getResult() { return result; }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > result.length) { result = Arrays.copyOf(result, Math.max(capacity, result.length * 2)); }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.spacefx;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Player input that can be written from the FX application thread while the
+ * world is ticked on another thread. Commands are collected here and applied
+ * to the world right before the next tick.
+ */
+public final class Controls {
+    private volatile double                spaceShipVX;
+    private volatile double                spaceShipVY;
+    private final    AtomicInteger         torpedos = new AtomicInteger();
+    private final    AtomicInteger         rockets  = new AtomicInteger();
+    private final    AtomicInteger         shields  = new AtomicInteger();
+    private volatile boolean               autoFire;
+    private          InputJournal.Recorder recorder;
+
+
+    // ******************** Methods *******************************************
+    public void setSpaceShipVX(final double vX) { spaceShipVX = vX; }
+
+    public void setSpaceShipVY(final double vY) { spaceShipVY = vY; }
+
+    public void fireTorpedo() { torpedos.incrementAndGet(); }
+
+    public void fireRocket() { rockets.incrementAndGet(); }
+
+    public void activateShield() { shields.incrementAndGet(); }
+
+    /**
+     * Fires one torpedo per tick in addition to the player input
+     */
+    public void setAutoFire(final boolean autoFire) { this.autoFire = autoFire; }
+
+    /**
+     * Records all input that is applied from now on, must be set before the world is ticked on another thread
+     */
+    void setRecorder(final InputJournal.Recorder recorder) { this.recorder = recorder; }
+
+    /**
+     * Applies all commands that have been collected since the last call, must be called once per tick
+     */
+    void applyTo(final World world) {
+        final double  vX           = spaceShipVX;
+        final double  vY           = spaceShipVY;
+        final int     noOfTorpedos = torpedos.getAndSet(0) + (autoFire ? 1 : 0);
+        final int     noOfRockets  = rockets.getAndSet(0);
+        final boolean shield       = shields.getAndSet(0) > 0;
+        if (null != recorder) { recorder.record(vX, vY, noOfTorpedos, noOfRockets, shield); }
+
+        world.setSpaceShipVX(vX);
+        world.setSpaceShipVY(vY);
+        for (int i = noOfTorpedos ; i > 0 ; i--) { world.fireTorpedo(); }
+        for (int i = noOfRockets ; i > 0 ; i--) { world.fireRocket(); }
+        if (shield) { world.activateShield(); }
+    }
+
+    void reset() {
+        spaceShipVX = 0;
+        spaceShipVY = 0;
+        torpedos.set(0);
+        rockets.set(0);
+        shields.set(0);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.Arrays;
+
+
+/**
+ * Rectangles that have been drawn in the last frame of a canvas layer.
+ * Instead of clearing the whole layer only these rectangles are cleared
+ * before the next frame is drawn. If the rectangles cover too much of the
+ * layer it is cleared completely because one large clear is cheaper than
+ * many small overlapping ones.
+ */
+final class DirtyRegions {
+    private static final int      INITIAL_CAPACITY = 256;
+    private static final double   MARGIN           = 2;
+    private        final double   width;
+    private        final double   height;
+    private        final double   maxArea;
+    private              double[] x;
+    private              double[] y;
+    private              double[] w;
+    private              double[] h;
+    private              int      count;
+    private              double   area;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param width        width of the layer
+     * @param height       height of the layer
+     * @param maxCoverage  fraction of the layer above which the whole layer is cleared
+     */
+    DirtyRegions(final double width, final double height, final double maxCoverage) {
+        this.width   = width;
+        this.height  = height;
+        this.maxArea = width * height * maxCoverage;
+        this.x       = new double[INITIAL_CAPACITY];
+        this.y       = new double[INITIAL_CAPACITY];
+        this.w       = new double[INITIAL_CAPACITY];
+        this.h       = new double[INITIAL_CAPACITY];
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Marks the given rectangle as drawn, a small margin is added for antialiasing
+     */
+    void add(final double rectX, final double rectY, final double rectWidth, final double rectHeight) {
+        final double minX = Math.max(0, rectX - MARGIN);
+        final double minY = Math.max(0, rectY - MARGIN);
+        final double maxX = Math.min(width, rectX + rectWidth + MARGIN);
+        final double maxY = Math.min(height, rectY + rectHeight + MARGIN);
+        if (maxX <= minX || maxY <= minY) { return; }
+        if (count == x.length) {
+            x = Arrays.copyOf(x, count * 2);
+            y = Arrays.copyOf(y, count * 2);
+            w = Arrays.copyOf(w, count * 2);
+            h = Arrays.copyOf(h, count * 2);
+        }
+        x[count] = minX;
+        y[count] = minY;
+        w[count] = maxX - minX;
+        h[count] = maxY - minY;
+        area    += w[count] * h[count];
+        count++;
+    }
+
+    /**
+     * Clears everything that has been drawn since the last call and starts a new frame
+     */
+    void clear(final GraphicsContext ctx) {
+        if (area > maxArea) {
+            ctx.clearRect(0, 0, width, height);
+        } else {
+            for (int i = 0 ; i < count ; i++) { ctx.clearRect(x[i], y[i], w[i], h[i]); }
+        }
+        reset();
+    }
+
+    /**
+     * Forgets all rectangles, e.g. after the layer has been cleared completely
+     */
+    void reset() {
+        count = 0;
+        area  = 0;
+    }
+
+    int getCount() { return count; }
+}
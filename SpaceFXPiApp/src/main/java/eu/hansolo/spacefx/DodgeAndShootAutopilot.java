@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+
+/**
+ * Simple autopilot that dodges whatever comes close and shoots otherwise.
+ * Asteroids, enemies, enemy bosses and their torpedos are projected a few
+ * ticks ahead, the closest one that comes within a safety distance of the
+ * space ship is dodged, the shield is activated if it is about to hit. If
+ * nothing is in the way the space ship moves below the closest target and
+ * fires torpedos, rockets are fired at enemy bosses.
+ */
+public final class DodgeAndShootAutopilot implements Autopilot {
+    private static final double SPEED           = 5; // same as the arrow keys
+    private static final double LOOKAHEAD_TICKS = 10;
+    private static final double DEAD_ZONE       = 4;
+    private static final int    FIRE_INTERVAL   = 3;
+    private static final int    ROCKET_INTERVAL = 30;
+    private static final double HOME_Y          = World.HEIGHT * 0.85;
+    private              int    ticksSinceTorpedo;
+    private              int    ticksSinceRocket;
+    private              double threatX;
+    private              double threatY;
+    private              double threatDistance;
+
+
+    // ******************** Methods *******************************************
+    @Override public void steer(final World world, final Controls controls) {
+        final World.SpaceShip spaceShip = world.getSpaceShip();
+        final double          safety    = spaceShip.radius * 3;
+        ticksSinceTorpedo++;
+        ticksSinceRocket++;
+
+        // Find the closest threat
+        threatDistance = Double.MAX_VALUE;
+        for (World.Asteroid asteroid : world.getAsteroids()) {
+            check(spaceShip, asteroid.cX, asteroid.cY, asteroid.vX, asteroid.vY, asteroid.radius);
+        }
+        for (World.Enemy enemy : world.getEnemies()) {
+            check(spaceShip, enemy.x, enemy.y, enemy.vX, enemy.vY, enemy.radius);
+        }
+        final EntityList<World.EnemyBoss> enemyBosses = world.getEnemyBosses();
+        for (int i = 0 ; i < enemyBosses.count ; i++) {
+            World.EnemyBoss enemyBoss = enemyBosses.get(i);
+            check(spaceShip, enemyBoss.x, enemyBoss.y, enemyBoss.vX, enemyBoss.vY, enemyBoss.radius);
+        }
+        check(spaceShip, world.getEnemyTorpedos());
+        check(spaceShip, world.getEnemyBossTorpedos());
+
+        if (threatDistance < safety) {
+            // Dodge sideways away from the threat, turn around at the borders
+            double vX = threatX < spaceShip.x ? SPEED : -SPEED;
+            if (spaceShip.x + vX * LOOKAHEAD_TICKS < spaceShip.radius || spaceShip.x + vX * LOOKAHEAD_TICKS > World.WIDTH - spaceShip.radius) { vX = -vX; }
+            controls.setSpaceShipVX(vX);
+            controls.setSpaceShipVY(threatY < spaceShip.y && spaceShip.y < World.HEIGHT - spaceShip.size ? SPEED : -SPEED);
+            if (threatDistance < spaceShip.radius) { controls.activateShield(); }
+            return;
+        }
+
+        // Move below the closest target and shoot
+        double targetX      = Double.NaN;
+        double targetRadius = 0;
+        double targetDx     = Double.MAX_VALUE;
+        for (World.Asteroid asteroid : world.getAsteroids()) {
+            if (asteroid.cY > 0 && asteroid.cY < spaceShip.y && Math.abs(asteroid.cX - spaceShip.x) < targetDx) {
+                targetX      = asteroid.cX;
+                targetRadius = asteroid.radius;
+                targetDx     = Math.abs(asteroid.cX - spaceShip.x);
+            }
+        }
+        for (World.Enemy enemy : world.getEnemies()) {
+            if (enemy.y > 0 && enemy.y < spaceShip.y && Math.abs(enemy.x - spaceShip.x) < targetDx) {
+                targetX      = enemy.x;
+                targetRadius = enemy.radius;
+                targetDx     = Math.abs(enemy.x - spaceShip.x);
+            }
+        }
+        boolean bossAligned = false;
+        for (int i = 0 ; i < enemyBosses.count ; i++) {
+            World.EnemyBoss enemyBoss = enemyBosses.get(i);
+            if (enemyBoss.y < spaceShip.y && Math.abs(enemyBoss.x - spaceShip.x) < enemyBoss.radius) { bossAligned = true; }
+        }
+
+        if (Double.isNaN(targetX) || targetDx < DEAD_ZONE) {
+            controls.setSpaceShipVX(0);
+        } else {
+            controls.setSpaceShipVX(targetX < spaceShip.x ? -SPEED : SPEED);
+        }
+        if (Math.abs(HOME_Y - spaceShip.y) < DEAD_ZONE) {
+            controls.setSpaceShipVY(0);
+        } else {
+            controls.setSpaceShipVY(HOME_Y < spaceShip.y ? -SPEED : SPEED);
+        }
+        if (targetDx < targetRadius && ticksSinceTorpedo >= FIRE_INTERVAL) {
+            controls.fireTorpedo();
+            ticksSinceTorpedo = 0;
+        }
+        if (bossAligned && ticksSinceRocket >= ROCKET_INTERVAL) {
+            controls.fireRocket();
+            ticksSinceRocket = 0;
+        }
+    }
+
+    private void check(final World.SpaceShip spaceShip, final Projectiles projectiles) {
+        for (int i = 0 ; i < projectiles.count ; i++) {
+            check(spaceShip, projectiles.x[i], projectiles.y[i], projectiles.vX[i], projectiles.vY[i], projectiles.radius);
+        }
+    }
+
+    /**
+     * Remembers the object as threat if it is or will be closer to the space ship than the current threat
+     */
+    private void check(final World.SpaceShip spaceShip, final double x, final double y, final double vX, final double vY, final double radius) {
+        final double futureX  = x + vX * LOOKAHEAD_TICKS;
+        final double futureY  = y + vY * LOOKAHEAD_TICKS;
+        final double distance = Math.min(Math.hypot(x - spaceShip.x, y - spaceShip.y), Math.hypot(futureX - spaceShip.x, futureY - spaceShip.y)) - radius - spaceShip.radius;
+        if (distance < threatDistance) {
+            threatDistance = distance;
+            threatX        = x;
+            threatY        = y;
+        }
+    }
+}
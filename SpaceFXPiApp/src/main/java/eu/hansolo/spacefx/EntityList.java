@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+
+/**
+ * Entity storage for game objects that are too complex for a structure of
+ * arrays like enemy bosses and crystals. Killed objects are given back to
+ * their pool when the store is compacted. The objects decide themselves
+ * when they are out of sight.
+ */
+public final class EntityList<T> extends EntityStore {
+    private final Pool<T>              pool;
+    private final Predicate<? super T> outOfSight;
+    private       Object[]             items;
+
+
+    // ******************** Constructors **************************************
+    EntityList(final Pool<T> pool, final int initialCapacity, final Predicate<? super T> outOfSight) {
+        super(pool.getName(), initialCapacity);
+        this.pool       = pool;
+        this.outOfSight = outOfSight;
+        this.items      = new Object[getCapacity()];
+    }
+
+
+    // ******************** Methods *******************************************
+    int add(final T item) {
+        final int index = allocate();
+        items[index] = item;
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(final int index) { return (T) items[index]; }
+
+    @SuppressWarnings("unchecked")
+    @Override void release(final int index) {
+        pool.free((T) items[index]);
+        items[index] = null;
+    }
+
+    @Override boolean isOutOfSight(final int index, final double width, final double height) {
+        return outOfSight.test(get(index));
+    }
+
+    @Override void move(final int from, final int to) {
+        items[to]   = items[from];
+        items[from] = null;
+    }
+
+    @Override void resize(final int capacity) {
+        items = Arrays.copyOf(items, capacity);
+    }
+}
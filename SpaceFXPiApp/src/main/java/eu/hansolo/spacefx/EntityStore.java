@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+
+
+/**
+ * Base class for the entity storages of the world.
+ * Entities live in the slots 0 to count - 1 of the arrays of the subclasses.
+ * Entities that are killed during a tick keep their slot until compact()
+ * moves the last living entity into it, so indices are stable within a tick
+ * and removal is O(n) for the whole store without any removal lists.
+ * The lifecycle of all entities is bounded by cull(), which kills entities
+ * that have left the screen for good and entities that outlived the time to
+ * live of their store.
+ */
+public abstract class EntityStore {
+    private final String    name;
+                  boolean[] dead;
+                  double[]  age;
+                  int       count;
+    private       int       capacity;
+    private       int       noOfDead;
+    private       int       highWaterMark;
+    private       long      growths;
+    private       double    timeToLive;
+    private       long      expirations;
+
+
+    // ******************** Constructors **************************************
+    EntityStore(final String name, final int initialCapacity) {
+        this.name          = name;
+        this.capacity      = Math.max(1, initialCapacity);
+        this.dead          = new boolean[capacity];
+        this.age           = new double[capacity];
+        this.count         = 0;
+        this.noOfDead      = 0;
+        this.highWaterMark = 0;
+        this.growths       = 0;
+        this.timeToLive    = Double.POSITIVE_INFINITY;
+        this.expirations   = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Reserves the next free slot and grows the arrays if the store is full
+     * @return the index of the new entity
+     */
+    final int allocate() {
+        if (count == capacity) {
+            capacity *= 2;
+            dead      = Arrays.copyOf(dead, capacity);
+            age       = Arrays.copyOf(age, capacity);
+            resize(capacity);
+            growths++;
+        }
+        dead[count] = false;
+        age[count]  = 0;
+        count++;
+        if (count > highWaterMark) { highWaterMark = count; }
+        return count - 1;
+    }
+
+    final void kill(final int index) {
+        if (dead[index]) { return; }
+        dead[index] = true;
+        noOfDead++;
+    }
+
+    final boolean isDead(final int index) { return dead[index]; }
+
+    /**
+     * Removes all killed entities by moving the last living entity into their slot
+     */
+    final void compact() {
+        if (0 == noOfDead) { return; }
+        int i = 0;
+        while (i < count) {
+            if (dead[i]) {
+                release(i);
+                count--;
+                if (i != count) {
+                    move(count, i);
+                    dead[i] = dead[count];
+                    age[i]  = age[count];
+                }
+            } else {
+                i++;
+            }
+        }
+        noOfDead = 0;
+    }
+
+    /**
+     * Ages all living entities and kills the ones that are out of sight or
+     * older than the time to live of the store
+     * @param width  the width of the screen
+     * @param height the height of the screen
+     * @param speed  the length of the tick relative to World.TICK_NANOS
+     */
+    final void cull(final double width, final double height, final double speed) {
+        for (int i = 0 ; i < count ; i++) {
+            if (dead[i]) { continue; }
+            age[i] += speed;
+            if (isOutOfSight(i, width, height)) {
+                kill(i);
+            } else if (age[i] > timeToLive) {
+                kill(i);
+                expirations++;
+            }
+        }
+    }
+
+    final void clear() {
+        for (int i = 0 ; i < count ; i++) { release(i); }
+        count    = 0;
+        noOfDead = 0;
+    }
+
+    /**
+     * Called for every killed entity before its slot is overwritten or cleared
+     */
+    void release(final int index) {}
+
+    /**
+     * Returns true if the entity has left the screen and will not come back
+     */
+    abstract boolean isOutOfSight(int index, double width, double height);
+
+    /**
+     * Copies the entity in slot from into slot to
+     */
+    abstract void move(int from, int to);
+
+    /**
+     * Grows the primitive arrays of the subclass to the given capacity
+     */
+    abstract void resize(int capacity);
+
+    public String getName() { return name; }
+
+    public int getCount() { return count; }
+
+    public int getCapacity() { return capacity; }
+
+    public int getHighWaterMark() { return highWaterMark; }
+
+    public long getGrowths() { return growths; }
+
+    /**
+     * Returns the maximum age of the entities in ticks of World.TICK_NANOS
+     */
+    public double getTimeToLive() { return timeToLive; }
+    /**
+     * Sets the maximum age of the entities in ticks of World.TICK_NANOS. It is a
+     * safety net for entities that are never culled, in a healthy world no
+     * entity reaches it.
+     */
+    void setTimeToLive(final double timeToLive) { this.timeToLive = timeToLive; }
+
+    /**
+     * Returns the number of entities that were killed because they reached the time to live
+     */
+    public long getExpirations() { return expirations; }
+
+    @Override public String toString() {
+        return new StringBuilder().append(name).append(": count=").append(count).append(", capacity=").append(capacity)
+                                  .append(", highWaterMark=").append(highWaterMark).append(", growths=").append(growths)
+                                  .append(", expirations=").append(expirations).toString();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import com.sun.management.ThreadMXBean;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Per frame instrumentation of the renderer.
+ * The time between two calls of mark() is recorded for the given phase, in
+ * addition every frame records its total time, the number of entities, the
+ * bytes allocated by the FX application thread and the time spent in garbage
+ * collections. Note that the draw phases measure the time to record the
+ * canvas commands, the rendering itself happens later on the render thread.
+ */
+public final class FrameMetrics {
+    public enum Phase {
+        SIMULATION, BACKGROUND, STARS, ASTEROIDS, ENEMIES, BOSSES, PROJECTILES, EXPLOSIONS, HUD;
+
+        final String key = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final Phase[]                      PHASES = Phase.values();
+    private        final Histogram[]                  phases;
+    private        final Histogram                    frame;
+    private        final Histogram                    tick;
+    private        final Histogram                    entities;
+    private        final Histogram                    allocated;
+    private        final Histogram                    gcPause;
+    private        final List<Histogram>              histograms;
+    private        final ThreadMXBean                 allocationBean;
+    private        final List<GarbageCollectorMXBean> gcBeans;
+    private        final long                         startNanos;
+    private              long                         frameStart;
+    private              long                         lastMark;
+    private              long                         lastAllocated;
+    private              long                         lastGcMillis;
+
+
+    // ******************** Constructors **************************************
+    public FrameMetrics() {
+        phases     = new Histogram[PHASES.length];
+        histograms = new ArrayList<>();
+        for (Phase phase : PHASES) {
+            phases[phase.ordinal()] = new Histogram(phase.key, "ns");
+            histograms.add(phases[phase.ordinal()]);
+        }
+        frame     = new Histogram("frame", "ns");
+        tick      = new Histogram("tick", "ns");
+        entities  = new Histogram("entities", "count");
+        allocated = new Histogram("allocated", "bytes");
+        gcPause   = new Histogram("gc", "ns");
+        histograms.add(frame);
+        histograms.add(tick);
+        histograms.add(entities);
+        histograms.add(allocated);
+        histograms.add(gcPause);
+
+        // Allocation counters are a HotSpot extension and might not be available
+        ThreadMXBean bean = null;
+        try {
+            java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            if (threadBean instanceof ThreadMXBean && ((ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+                bean = (ThreadMXBean) threadBean;
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+        } catch (UnsupportedOperationException | LinkageError e) {
+            bean = null;
+        }
+        allocationBean = bean;
+        gcBeans        = ManagementFactory.getGarbageCollectorMXBeans();
+        lastGcMillis   = gcMillis();
+        startNanos     = System.nanoTime();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Starts a new frame, must be called on the FX application thread
+     */
+    public void beginFrame() {
+        frameStart = System.nanoTime();
+        lastMark   = frameStart;
+    }
+
+    /**
+     * Records the time since the last mark or the start of the frame for the given phase
+     */
+    public void mark(final Phase phase) {
+        final long now = System.nanoTime();
+        phases[phase.ordinal()].record(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * Finishes the current frame
+     * @param noOfEntities number of entities that have been drawn in this frame
+     */
+    public void endFrame(final int noOfEntities) {
+        frame.record(System.nanoTime() - frameStart);
+        entities.record(noOfEntities);
+
+        if (null != allocationBean) {
+            final long bytes = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            if (lastAllocated > 0) { allocated.record(bytes - lastAllocated); }
+            lastAllocated = bytes;
+        }
+
+        final long gcMillis = gcMillis();
+        if (gcMillis > lastGcMillis) { gcPause.record((gcMillis - lastGcMillis) * 1_000_000); }
+        lastGcMillis = gcMillis;
+    }
+
+    // Accumulated collection time of all garbage collectors
+    private long gcMillis() {
+        long gcMillis = 0;
+        for (int i = 0, n = gcBeans.size() ; i < n ; i++) { gcMillis += Math.max(0, gcBeans.get(i).getCollectionTime()); }
+        return gcMillis;
+    }
+
+    /**
+     * Records the duration of a single World.tick(), may be called from the simulation thread
+     */
+    public void recordTick(final long nanos) { tick.record(nanos); }
+
+    Histogram getPhase(final Phase phase) { return phases[phase.ordinal()]; }
+
+    Histogram getFrame() { return frame; }
+
+    Histogram getTick() { return tick; }
+
+    /**
+     * Returns the number of ticks that have been recorded so far
+     */
+    public long getNoOfTicks() { return tick.getCount(); }
+
+    /**
+     * Returns all histograms in the order they are exported
+     */
+    List<Histogram> getHistograms() { return histograms; }
+
+    /**
+     * Writes all histograms to the given file, the format is JSON if the file
+     * name ends with .json and CSV otherwise
+     */
+    public void export(final Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                writeJson(writer);
+            } else {
+                writeCsv(writer);
+            }
+        }
+    }
+
+    private void writeCsv(final Writer writer) throws IOException {
+        writer.write("metric,unit,count,mean,p50,p90,p99,p999,max\n");
+        for (Histogram histogram : histograms) {
+            writer.write(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%d,%d,%d\n", histogram.getName(), histogram.getUnit(), histogram.getCount(), histogram.getMean(),
+                                       histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                                       histogram.getValueAtPercentile(99.9), histogram.getMax()));
+        }
+    }
+
+    private void writeJson(final Writer writer) throws IOException {
+        writer.write(String.format(Locale.ROOT, "{\n  \"seconds\": %.3f,\n  \"metrics\": {\n", (System.nanoTime() - startNanos) / 1e9));
+        for (int i = 0 ; i < histograms.size() ; i++) {
+            Histogram histogram = histograms.get(i);
+            writer.write(String.format(Locale.ROOT, "    \"%s\": { \"unit\": \"%s\", \"count\": %d, \"mean\": %.1f, \"p50\": %d, \"p90\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d }%s\n",
+                                       histogram.getName(), histogram.getUnit(), histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                                       histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                                       histogram.getMax(), i < histograms.size() - 1 ? "," : ""));
+        }
+        writer.write("  }\n}\n");
+    }
+}
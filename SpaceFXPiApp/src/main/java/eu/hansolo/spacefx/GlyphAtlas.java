@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.text.TextBoundsType;
+
+
+/**
+ * Digits of one font, size and color rasterized once into a single image.
+ * Numbers are drawn glyph by glyph with drawImage() instead of fillText(),
+ * which avoids the text layout and glyph rasterization of the canvas. They
+ * are formatted into a reused char buffer so drawing them does not allocate.
+ * Kerning is ignored, which is fine for the digits of the HUD.
+ * Must be created and used on the FX application thread.
+ */
+final class GlyphAtlas {
+    private static final int      PADDING = 2;
+    private        final Image    image;
+    private        final int[]    cellX;
+    private        final double[] cellWidth;
+    private        final double[] advance;
+    private        final double   cellHeight;
+    private        final char[]   buffer;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param font  the font of the glyphs
+     * @param color the fill of the glyphs
+     */
+    GlyphAtlas(final Font font, final Color color) {
+        final String glyphs  = "-0123456789";
+        final Text   measure = new Text();
+        measure.setFont(font);
+        measure.setBoundsType(TextBoundsType.LOGICAL);
+
+        int maxChar = 0;
+        for (int i = 0 ; i < glyphs.length() ; i++) { maxChar = Math.max(maxChar, glyphs.charAt(i)); }
+        cellX      = new int[maxChar + 1];
+        cellWidth  = new double[maxChar + 1];
+        advance    = new double[maxChar + 1];
+        buffer     = new char[20];
+
+        // Lay out all glyphs in a single row with transparent padding around each glyph
+        int    width  = 0;
+        double height = 0;
+        for (int i = 0 ; i < glyphs.length() ; i++) {
+            char c = glyphs.charAt(i);
+            if (advance[c] > 0) { continue; }
+            measure.setText(String.valueOf(c));
+            advance[c]   = measure.getLayoutBounds().getWidth();
+            cellX[c]     = width;
+            cellWidth[c] = Math.ceil(advance[c]) + 2 * PADDING;
+            width       += (int) cellWidth[c];
+            height       = Math.max(height, measure.getLayoutBounds().getHeight());
+        }
+        cellHeight = Math.ceil(height) + 2 * PADDING;
+
+        final Canvas          canvas = new Canvas(Math.max(1, width), cellHeight);
+        final GraphicsContext ctx    = canvas.getGraphicsContext2D();
+        ctx.setFont(font);
+        ctx.setFill(color);
+        ctx.setTextAlign(TextAlignment.LEFT);
+        ctx.setTextBaseline(VPos.TOP);
+        for (int i = 0 ; i < glyphs.length() ; i++) {
+            char c = glyphs.charAt(i);
+            ctx.fillText(String.valueOf(c), cellX[c] + PADDING, PADDING);
+        }
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        image = canvas.snapshot(parameters, new WritableImage(Math.max(1, width), (int) cellHeight));
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Draws the given number centered at the given position
+     */
+    void drawNumber(final GraphicsContext ctx, final long number, final double centerX, final double centerY) {
+        // Fill the buffer from the end, Long.MIN_VALUE needs all 20 chars
+        int  start = buffer.length;
+        long value = number;
+        do {
+            buffer[--start] = (char) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (number < 0) { buffer[--start] = '-'; }
+        draw(ctx, buffer, start, buffer.length - start, centerX, centerY);
+    }
+
+    private void draw(final GraphicsContext ctx, final char[] chars, final int offset, final int length, final double centerX, final double centerY) {
+        double width = 0;
+        for (int i = offset ; i < offset + length ; i++) {
+            if (chars[i] < advance.length) { width += advance[chars[i]]; }
+        }
+        double x = centerX - width * 0.5;
+        double y = centerY - cellHeight * 0.5;
+        for (int i = offset ; i < offset + length ; i++) {
+            x += drawGlyph(ctx, chars[i], x, y);
+        }
+    }
+
+    private double drawGlyph(final GraphicsContext ctx, final char c, final double x, final double y) {
+        if (c >= advance.length || 0 == advance[c]) { return 0; }
+        ctx.drawImage(image, cellX[c], 0, cellWidth[c], cellHeight, x - PADDING, y, cellWidth[c], cellHeight);
+        return advance[c];
+    }
+}
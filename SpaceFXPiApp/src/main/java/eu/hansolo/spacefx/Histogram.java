@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Log linear histogram of positive long values in the style of HdrHistogram.
+ * Every power of two is split into 16 buckets, so values are kept with a
+ * relative error of at most 1/16 over the whole long range in a fixed amount
+ * of memory. Recording never allocates or locks. There must only be one
+ * thread that records values, any thread may read them.
+ */
+final class Histogram {
+    private static final int             SUB_BUCKET_BITS  = 4;
+    private static final int             SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int             SUB_BUCKET_MASK  = SUB_BUCKET_COUNT - 1;
+    private static final int             NO_OF_BUCKETS    = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    private        final String          name;
+    private        final String          unit;
+    private        final AtomicLongArray counts;
+    private volatile     long            count;
+    private volatile     long            sum;
+    private volatile     long            max;
+
+
+    // ******************** Constructors **************************************
+    Histogram(final String name, final String unit) {
+        this.name   = name;
+        this.unit   = unit;
+        this.counts = new AtomicLongArray(NO_OF_BUCKETS);
+    }
+
+
+    // ******************** Methods *******************************************
+    String getName() { return name; }
+
+    String getUnit() { return unit; }
+
+    /**
+     * Records the given value, negative values are recorded as 0
+     */
+    void record(final long value) {
+        final long v = Math.max(0, value);
+        final int  i = indexOf(v);
+        counts.lazySet(i, counts.get(i) + 1);
+        sum   = sum + v;
+        count = count + 1;
+        if (v > max) { max = v; }
+    }
+
+    long getCount() { return count; }
+
+    long getSum() { return sum; }
+
+    long getMax() { return max; }
+
+    double getMean() {
+        final long n = count;
+        return 0 == n ? 0 : sum / (double) n;
+    }
+
+    /**
+     * Returns the highest value of the bucket that contains the given percentile
+     * @param percentile a value between 0 and 100
+     */
+    long getValueAtPercentile(final double percentile) {
+        final long n = count;
+        if (0 == n) { return 0; }
+        final long target     = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * n));
+        long       cumulative = 0;
+        for (int i = 0 ; i < NO_OF_BUCKETS ; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) { return Math.min(highestValueOf(i), max); }
+        }
+        return max;
+    }
+
+    /**
+     * Adds all values of the given histogram, must only be called from the
+     * thread that records values and while the other histogram is not recorded to
+     */
+    void add(final Histogram other) {
+        for (int i = 0 ; i < NO_OF_BUCKETS ; i++) { counts.lazySet(i, counts.get(i) + other.counts.get(i)); }
+        sum   = sum + other.sum;
+        count = count + other.count;
+        if (other.max > max) { max = other.max; }
+    }
+
+    /**
+     * Must only be called from the thread that records values
+     */
+    void reset() {
+        for (int i = 0 ; i < NO_OF_BUCKETS ; i++) { counts.lazySet(i, 0); }
+        count = 0;
+        sum   = 0;
+        max   = 0;
+    }
+
+    private static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) { return (int) value; }
+        final int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    private static long highestValueOf(final int index) {
+        if (index < SUB_BUCKET_COUNT) { return index; }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        final long low  = (long) (SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK)) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    @Override public String toString() {
+        return new StringBuilder().append(name).append(": count=").append(count).append(", p50=").append(getValueAtPercentile(50))
+                                  .append(", p99=").append(getValueAtPercentile(99)).append(", max=").append(max).append(' ').append(unit).toString();
+    }
+}
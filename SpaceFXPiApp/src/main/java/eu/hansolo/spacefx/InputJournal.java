@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Append only binary journal of the player input of games.
+ * The file starts with MAGIC and VERSION followed by records that start with
+ * a code byte. A GAME record holds the seed, the number of asteroids and
+ * enemies, the tick length and the settings of the world of a game. The input records that follow hold
+ * the number of ticks since the previous record as a varint and the new
+ * value, velocities are only written when they change. An END record holds
+ * the number of ticks and the score of the game, a game without END record
+ * was interrupted. Together with the seed the input determines the game, so
+ * replaying a journal reproduces it tick by tick.
+ */
+final class InputJournal {
+    static final int  MAGIC   = 0x53464a31; // SFJ1
+    static final byte VERSION = 2;
+    static final byte GAME    = 1;
+    static final byte END     = 2;
+    static final byte VX      = 3;
+    static final byte VY      = 4;
+    static final byte TORPEDO = 5;
+    static final byte ROCKET  = 6;
+    static final byte SHIELD  = 7;
+
+
+    // ******************** Constructors **************************************
+    private InputJournal() {}
+
+
+    // ******************** Methods *******************************************
+    static void writeVarint(final DataOutputStream out, final int value) throws IOException {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarint(final DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0 ; shift < 32 ; shift += 7) {
+            final byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) { return value; }
+        }
+        throw new IOException("Malformed varint in input journal");
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Writes the input that Controls applies to the world. Must only be used
+     * by the thread that ticks the world. Errors are reported once and stop
+     * the recording, they never stop the game.
+     */
+    static final class Recorder implements Closeable {
+        private final Path             file;
+        private final DataOutputStream out;
+        private       boolean          recording;
+        private       boolean          failed;
+        private       int              tick;
+        private       int              lastEventTick;
+        private       double           vX;
+        private       double           vY;
+
+
+        Recorder(final Path file) throws IOException {
+            this.file = file;
+            final boolean isNew = !Files.exists(file) || 0 == Files.size(file);
+            this.out  = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+            if (isNew) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.flush();
+            }
+        }
+
+
+        /**
+         * Starts a new game, must be called right after the world was reset with its seed
+         */
+        void startGame(final World world, final long tickNanos) {
+            recording     = !failed;
+            tick          = 0;
+            lastEventTick = 0;
+            vX            = 0;
+            vY            = 0;
+            if (!recording) { return; }
+            try {
+                out.writeByte(GAME);
+                out.writeLong(world.getSeed());
+                out.writeInt(world.getAsteroids().length);
+                out.writeInt(world.getEnemies().length);
+                out.writeLong(tickNanos);
+                out.writeLong(world.getEnemyBossInterval());
+                out.writeLong(world.getCrystalInterval());
+                out.writeBoolean(world.isInvulnerable());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Records the input of the next tick, called once per tick right before the world is ticked
+         */
+        void record(final double vX, final double vY, final int torpedos, final int rockets, final boolean shield) {
+            if (!recording) { return; }
+            try {
+                if (vX != this.vX) {
+                    event(VX);
+                    out.writeDouble(vX);
+                    this.vX = vX;
+                }
+                if (vY != this.vY) {
+                    event(VY);
+                    out.writeDouble(vY);
+                    this.vY = vY;
+                }
+                for (int i = 0 ; i < torpedos ; i++) { event(TORPEDO); }
+                for (int i = 0 ; i < rockets ; i++) { event(ROCKET); }
+                if (shield) { event(SHIELD); }
+            } catch (IOException e) {
+                fail(e);
+            }
+            tick++;
+        }
+
+        /**
+         * Ends the current game and flushes the journal
+         */
+        void endGame(final long score) {
+            if (!recording) { return; }
+            recording = false;
+            try {
+                event(END);
+                out.writeLong(score);
+                out.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override public void close() throws IOException {
+            recording = false;
+            out.close();
+        }
+
+        private void event(final byte code) throws IOException {
+            out.writeByte(code);
+            writeVarint(out, tick - lastEventTick);
+            lastEventTick = tick;
+        }
+
+        private void fail(final IOException e) {
+            recording = false;
+            failed    = true;
+            System.err.println("Could not record input to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the games of a journal and feeds their input tick by tick into
+     * Controls, so it reaches the world on the same path as live input.
+     */
+    static final class Player implements Closeable {
+        private static final byte                 EOF = -1;
+        private        final ByteArrayInputStream bytes;
+        private        final DataInputStream      in;
+        private        final int                  length;
+        private              byte                 code;
+        private              int                  gameOffset;
+        private              int                  eventTick;
+        private              int                  tick;
+        private              long                 seed;
+        private              int                  noOfAsteroids;
+        private              int                  noOfEnemies;
+        private              long                 tickNanos;
+        private              long                 enemyBossInterval;
+        private              long                 crystalInterval;
+        private              boolean              invulnerable;
+        private              long                 score;
+
+
+        Player(final Path file) throws IOException {
+            this.bytes  = null;
+            this.in     = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            this.length = -1;
+            readHeader(file.toString());
+        }
+        /**
+         * Reads a journal that was loaded into memory
+         * @param journal the content of the journal file
+         * @param offset  0 or the offset of a game that was returned by getGameOffset()
+         */
+        Player(final byte[] journal, final int offset) throws IOException {
+            this.bytes  = new ByteArrayInputStream(journal, offset, journal.length - offset);
+            this.in     = new DataInputStream(bytes);
+            this.length = journal.length;
+            if (0 == offset) {
+                readHeader("Journal");
+            } else {
+                code = readCode();
+            }
+        }
+
+
+        /**
+         * Skips the rest of the current game and reads the header of the next one
+         * @return false if there are no more games in the journal
+         */
+        boolean nextGame() throws IOException {
+            while (GAME != code && EOF != code) { skipEvent(); }
+            if (EOF == code) { return false; }
+            // The code of the GAME record was read already
+            gameOffset        = null == bytes ? -1 : length - bytes.available() - 1;
+            seed              = in.readLong();
+            noOfAsteroids     = in.readInt();
+            noOfEnemies       = in.readInt();
+            tickNanos         = in.readLong();
+            enemyBossInterval = in.readLong();
+            crystalInterval   = in.readLong();
+            invulnerable      = in.readBoolean();
+            score             = -1;
+            tick              = 0;
+            eventTick         = 0;
+            code              = readCode();
+            readTick();
+            return true;
+        }
+
+        /**
+         * Applies the input of the next tick of the current game to the given controls
+         * @return false if the game has ended, the controls are not changed in that case
+         */
+        boolean nextTick(final Controls controls) throws IOException {
+            boolean applied = false;
+            while (isInput(code) && eventTick == tick) {
+                switch (code) {
+                    case VX     : controls.setSpaceShipVX(in.readDouble()); break;
+                    case VY     : controls.setSpaceShipVY(in.readDouble()); break;
+                    case TORPEDO: controls.fireTorpedo(); break;
+                    case ROCKET : controls.fireRocket(); break;
+                    case SHIELD : controls.activateShield(); break;
+                }
+                code    = readCode();
+                applied = true;
+                readTick();
+            }
+            if (END == code && eventTick == tick) {
+                score = in.readLong();
+                code  = readCode();
+                return false;
+            }
+            // An interrupted game ends after the tick of its last input
+            if ((GAME == code || EOF == code) && !applied) { return false; }
+            tick++;
+            return true;
+        }
+
+        /**
+         * Returns the offset of the current game in a journal that was loaded into memory, -1 for a journal that is read from a file
+         */
+        int getGameOffset() { return gameOffset; }
+
+        long getSeed() { return seed; }
+
+        long getTickNanos() { return tickNanos; }
+
+        /**
+         * Creates the world of the current game with the recorded seed and settings
+         */
+        World createWorld() {
+            final World world = new World(noOfAsteroids, noOfEnemies, seed);
+            world.setEnemyBossInterval(enemyBossInterval);
+            world.setCrystalInterval(crystalInterval);
+            world.setInvulnerable(invulnerable);
+            return world;
+        }
+
+        /**
+         * Returns the recorded score of the current game or -1 if the game was interrupted or is not finished
+         */
+        long getScore() { return score; }
+
+        @Override public void close() throws IOException { in.close(); }
+
+        private void readHeader(final String name) throws IOException {
+            if (in.readInt() != MAGIC) { throw new IOException(name + " is not an input journal"); }
+            final byte version = in.readByte();
+            if (version != VERSION) { throw new IOException("Unsupported journal version " + version); }
+            code = readCode();
+        }
+
+        private void skipEvent() throws IOException {
+            switch (code) {
+                case VX :
+                case VY : in.readDouble(); break;
+                case END: in.readLong(); break;
+            }
+            code = readCode();
+            readTick();
+        }
+
+        private void readTick() throws IOException {
+            if (isInput(code) || END == code) { eventTick += readVarint(in); }
+        }
+
+        private byte readCode() throws IOException {
+            final int next = in.read();
+            return -1 == next ? EOF : (byte) next;
+        }
+
+        private static boolean isInput(final byte code) { return code >= VX && code <= SHIELD; }
+    }
+}
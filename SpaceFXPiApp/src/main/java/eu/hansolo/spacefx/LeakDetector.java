@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Debug aid that watches the entity stores of a world for slow leaks. Once
+ * per second of simulation time it takes the lowest number of entities of
+ * every store during that second, a store is reported when these minima never
+ * dropped over the last seconds and rose in at least every other second. The
+ * minima ignore bursts like a salvo of torpedos and a single enemy boss that
+ * crosses the screen but not entities that are never removed. Entities that had to be
+ * killed by the time to live of their store are reported as well because
+ * they slipped through the culling.
+ */
+public final class LeakDetector {
+    private static final long              NANOS_PER_SECOND = 1_000_000_000l;
+    private final        List<EntityStore> stores;
+    private final        int               seconds;
+    private final        PrintStream       out;
+    private final        int[][]           minima;
+    private final        int[]             lowest;
+    private final        int[]             lastReport;
+    private final        long[]            expirations;
+    private              int               noOfSamples;
+    private              long              clock;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param stores  the stores to watch, usually World.getStores()
+     * @param seconds the number of seconds a store must grow before it is reported
+     * @param out     the stream the reports are written to
+     */
+    public LeakDetector(final List<EntityStore> stores, final int seconds, final PrintStream out) {
+        if (seconds < 2) { throw new IllegalArgumentException("seconds must be at least 2"); }
+        this.stores      = stores;
+        this.seconds     = seconds;
+        this.out         = out;
+        this.minima      = new int[stores.size()][seconds];
+        this.lowest      = new int[stores.size()];
+        this.lastReport  = new int[stores.size()];
+        this.expirations = new long[stores.size()];
+        this.noOfSamples = 0;
+        this.clock       = 0;
+        for (int i = 0 ; i < stores.size() ; i++) {
+            lowest[i]      = Integer.MAX_VALUE;
+            lastReport[i]  = -seconds;
+            expirations[i] = stores.get(i).getExpirations();
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Must be called after every tick of the world
+     * @param nanos the length of the tick in nanoseconds
+     */
+    public void sample(final long nanos) {
+        for (int i = 0, n = stores.size() ; i < n ; i++) {
+            final int count = stores.get(i).getCount();
+            if (count < lowest[i]) { lowest[i] = count; }
+        }
+        clock += nanos;
+        if (clock < NANOS_PER_SECOND) { return; }
+        clock -= NANOS_PER_SECOND;
+
+        final int slot = noOfSamples % seconds;
+        noOfSamples++;
+        for (int i = 0, n = stores.size() ; i < n ; i++) {
+            final EntityStore store = stores.get(i);
+            minima[i][slot] = lowest[i];
+            lowest[i]       = Integer.MAX_VALUE;
+
+            if (store.getExpirations() > expirations[i]) {
+                out.println(String.format(Locale.ROOT, "%s: %d entities reached the time to live of %.0f ticks without being culled",
+                                          store.getName(), store.getExpirations() - expirations[i], store.getTimeToLive()));
+                expirations[i] = store.getExpirations();
+            }
+
+            // Report a growing store again only after another full window
+            if (noOfSamples < seconds || noOfSamples - lastReport[i] < seconds) { continue; }
+            final int first = minima[i][noOfSamples % seconds];
+            final int last  = minima[i][slot];
+            if (2 * noOfRises(minima[i], noOfSamples % seconds) >= seconds - 1) {
+                out.println(String.format(Locale.ROOT, "%s: at least %d entities after %d s, grew from %d within the last %d s (capacity %d, high water mark %d)",
+                                          store.getName(), last, noOfSamples, first, seconds, store.getCapacity(), store.getHighWaterMark()));
+                lastReport[i] = noOfSamples;
+            }
+        }
+    }
+
+    // Number of times the values of the ring buffer rise starting with the oldest one, 0 if they ever drop
+    private static int noOfRises(final int[] ring, final int oldest) {
+        int noOfRises = 0;
+        for (int i = 1 ; i < ring.length ; i++) {
+            final int previous = ring[(oldest + i - 1) % ring.length];
+            final int current  = ring[(oldest + i) % ring.length];
+            if (current < previous) { return 0; }
+            if (current > previous) { noOfRises++; }
+        }
+        return noOfRises;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.function.Supplier;
+
+
+/**
+ * Fixed capacity pool of reusable objects.
+ * The pool is filled up to its capacity when it is created. If the pool is
+ * empty a new object will be created (counted as a miss), objects that are
+ * freed while the pool is full are left to the garbage collector.
+ */
+public final class Pool<T> {
+    private final String      name;
+    private final Supplier<T> factory;
+    private final Object[]    items;
+    private       int         size;
+    private       long        hits;
+    private       long        misses;
+
+
+    // ******************** Constructors **************************************
+    Pool(final String name, final int capacity, final Supplier<T> factory) {
+        this.name    = name;
+        this.factory = factory;
+        this.items   = new Object[capacity];
+        this.size    = 0;
+        this.hits    = 0;
+        this.misses  = 0;
+        while (size < capacity) { items[size++] = factory.get(); }
+    }
+
+
+    // ******************** Methods *******************************************
+    @SuppressWarnings("unchecked")
+    T obtain() {
+        if (size > 0) {
+            hits++;
+            T item = (T) items[--size];
+            items[size] = null;
+            return item;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    void free(final T item) {
+        if (size < items.length) { items[size++] = item; }
+    }
+
+    public String getName() { return name; }
+
+    public int getCapacity() { return items.length; }
+
+    public int getAvailable() { return size; }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    @Override public String toString() {
+        return new StringBuilder().append(name).append(": capacity=").append(items.length).append(", available=").append(size)
+                                  .append(", hits=").append(hits).append(", misses=").append(misses).toString();
+    }
+}
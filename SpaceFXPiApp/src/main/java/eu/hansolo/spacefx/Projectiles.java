@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+
+
+/**
+ * Structure of arrays storage for one kind of projectile.
+ * All projectiles of a kind share their size, so only position, velocity and
+ * the position of the previous tick (used for render interpolation) are
+ * stored per projectile.
+ */
+public final class Projectiles extends EntityStore {
+    final double   width;
+    final double   height;
+    final double   size;
+    final double   radius;
+          double[] x;
+          double[] y;
+          double[] prevX;
+          double[] prevY;
+          double[] vX;
+          double[] vY;
+
+
+    // ******************** Constructors **************************************
+    Projectiles(final String name, final double width, final double height, final int initialCapacity) {
+        super(name, initialCapacity);
+        this.width  = width;
+        this.height = height;
+        this.size   = width > height ? width : height;
+        this.radius = size * 0.5;
+        this.x      = new double[getCapacity()];
+        this.y      = new double[getCapacity()];
+        this.prevX  = new double[getCapacity()];
+        this.prevY  = new double[getCapacity()];
+        this.vX     = new double[getCapacity()];
+        this.vY     = new double[getCapacity()];
+    }
+
+
+    // ******************** Methods *******************************************
+    int add(final double x, final double y, final double vX, final double vY) {
+        final int index = allocate();
+        this.x[index]     = x;
+        this.y[index]     = y;
+        this.prevX[index] = x;
+        this.prevY[index] = y;
+        this.vX[index]    = vX;
+        this.vY[index]    = vY;
+        return index;
+    }
+
+    /**
+     * Moves all projectiles by their velocity times the given speed
+     * @param speed the length of the tick relative to World.TICK_NANOS
+     */
+    void move(final double speed) {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+        for (int i = 0 ; i < count ; i++) {
+            x[i] += vX[i] * speed;
+            y[i] += vY[i] * speed;
+        }
+    }
+
+    // A projectile is out of sight when it is off the screen and moving away from it
+    @Override boolean isOutOfSight(final int index, final double width, final double height) {
+        return (x[index] < -size && vX[index] <= 0) || (x[index] > width + size && vX[index] >= 0) ||
+               (y[index] < -size && vY[index] <= 0) || (y[index] > height + size && vY[index] >= 0);
+    }
+
+    @Override void move(final int from, final int to) {
+        x[to]     = x[from];
+        y[to]     = y[from];
+        prevX[to] = prevX[from];
+        prevY[to] = prevY[from];
+        vX[to]    = vX[from];
+        vY[to]    = vY[from];
+    }
+
+    @Override void resize(final int capacity) {
+        x     = Arrays.copyOf(x, capacity);
+        y     = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        vX    = Arrays.copyOf(vX, capacity);
+        vY    = Arrays.copyOf(vY, capacity);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.SplittableRandom;
+
+
+/**
+ * The independent random number streams of the game. Each subsystem draws
+ * from its own SplittableRandom that is derived from the seed of the run, so
+ * a seed determines all random numbers and a subsystem that draws more or
+ * fewer numbers does not shift the numbers of the others. SplittableRandom
+ * is neither synchronized nor thread safe, a stream must only be used by
+ * the thread of its subsystem. GAMES provides the seeds of the games of a
+ * session, new streams must be added at the end to keep the others stable.
+ */
+public enum RandomStream {
+    SPAWNING,
+    STARS,
+    EFFECTS,
+    GAMES;
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Creates this stream for the given seed, the same seed always gives the same numbers
+     */
+    public SplittableRandom create(final long seed) {
+        final SplittableRandom root   = new SplittableRandom(seed);
+        SplittableRandom       stream = root.split();
+        for (int i = 0 ; i < ordinal() ; i++) { stream = root.split(); }
+        return stream;
+    }
+}
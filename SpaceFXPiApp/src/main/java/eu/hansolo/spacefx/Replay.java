@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+
+/**
+ * Replays the games of an input journal that was recorded with
+ * -Dspacefx.record=FILE headless and as fast as possible. Every game is
+ * started with its recorded seed and its input is applied through Controls
+ * like in the live game, so the replayed score must match the recorded one.
+ * The replays are also repeatable load traces for the simulation.
+ * Usage: java eu.hansolo.spacefx.Replay FILE
+ */
+public final class Replay {
+
+    // ******************** Constructors **************************************
+    private Replay() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: Replay <journal>");
+            System.exit(2);
+        }
+        final boolean matches = replay(Paths.get(args[0]));
+        if (!matches) { System.exit(1); }
+    }
+
+    /**
+     * Replays all games of the given journal and prints one line per game
+     * @return false if the score of a finished game differs from the recorded one
+     */
+    static boolean replay(final Path file) throws IOException {
+        boolean matches = true;
+        try (InputJournal.Player player = new InputJournal.Player(file)) {
+            int game = 0;
+            while (player.nextGame()) {
+                final World    world    = player.createWorld();
+                final Controls controls = new Controls();
+                final Snapshot snapshot = new Snapshot();
+                final long     start    = System.nanoTime();
+                int ticks = 0;
+                while (!world.isGameOver() && player.nextTick(controls)) {
+                    controls.applyTo(world);
+                    world.tick(player.getTickNanos());
+                    snapshot.capture(world, System.nanoTime());
+                    ticks++;
+                }
+                final double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+                // Read the rest of the game to get the recorded score
+                while (player.nextTick(controls)) { }
+                final long   recorded = player.getScore();
+                final String result   = recorded < 0 ? "unfinished" : recorded == world.getScore() ? "ok" : "MISMATCH, recorded " + recorded;
+                if (recorded >= 0 && recorded != world.getScore()) { matches = false; }
+                System.out.println(String.format(Locale.ROOT, "game %d seed %d: %d ticks, score %d %s, %.1f ms, %.0f ticks/s",
+                                                 ++game, player.getSeed(), ticks, world.getScore(), result, millis, ticks / (millis / 1000.0)));
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Runs the world on its own thread with a fixed tick rate and publishes a
+ * snapshot after every tick. The thread stops by itself when the game is
+ * over, the world must only be touched from outside while it is stopped.
+ */
+public final class Simulation implements Runnable {
+    private static final long                   MAX_LAG_NANOS = 0_250_000_000l;
+    private final        World                  world;
+    private final        Controls               controls;
+    private final        TripleBuffer<Snapshot> snapshots;
+    private final        long                   tickNanos;
+    private final        FrameMetrics           metrics;
+    private              Autopilot              autopilot;
+    private volatile     boolean                running;
+    private              Thread                 thread;
+
+
+    // ******************** Constructors **************************************
+    Simulation(final World world, final Controls controls, final TripleBuffer<Snapshot> snapshots, final long tickNanos, final FrameMetrics metrics) {
+        this.world     = world;
+        this.controls  = controls;
+        this.snapshots = snapshots;
+        this.tickNanos = tickNanos;
+        this.metrics   = metrics;
+    }
+
+
+    // ******************** Methods *******************************************
+    void start() {
+        if (null != thread) { return; }
+        running = true;
+        thread  = new Thread(this, "SpaceFX Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits until it has finished its last tick
+     */
+    void stop() {
+        if (null == thread) { return; }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    boolean isRunning() { return running; }
+
+    /**
+     * Sets the autopilot that steers the space ship on the simulation thread, must be set while the simulation is stopped
+     */
+    void setAutopilot(final Autopilot autopilot) { this.autopilot = autopilot; }
+
+    @Override public void run() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            if (null != autopilot) { autopilot.steer(world, controls); }
+            controls.applyTo(world);
+            long tickStart = System.nanoTime();
+            world.tick(tickNanos);
+            metrics.recordTick(System.nanoTime() - tickStart);
+
+            Snapshot snapshot = snapshots.getBack();
+            snapshot.capture(world, System.nanoTime());
+            snapshots.publish();
+
+            if (world.isGameOver()) {
+                running = false;
+                break;
+            }
+
+            nextTick += tickNanos;
+            long waitNanos = nextTick - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            } else if (-waitNanos > MAX_LAG_NANOS) {
+                // Drop simulation time after a stall instead of catching up
+                nextTick = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+
+
+/**
+ * Copy of everything the renderer needs from the world after a tick.
+ * Snapshots are handed from the simulation to the FX application thread with
+ * a TripleBuffer. The arrays grow on demand and are reused afterwards, so
+ * capturing a snapshot does not allocate in a running game.
+ */
+public final class Snapshot {
+    final Sprites asteroids         = new Sprites();
+    final Sprites enemies           = new Sprites();
+    final Sprites enemyBosses       = new Sprites();
+    final Sprites crystals          = new Sprites();
+    final Sprites torpedos          = new Sprites();
+    final Sprites rockets           = new Sprites();
+    final Sprites enemyTorpedos     = new Sprites();
+    final Sprites enemyBossTorpedos = new Sprites();
+    final Sprites animations        = new Sprites();
+    long          nanos;
+    int           noOfEntities;
+    long          score;
+    int           noOfLifes;
+    int           noOfShields;
+    boolean       hasBeenHit;
+    boolean       gameOver;
+    double        spaceShipX;
+    double        spaceShipY;
+    double        spaceShipPrevX;
+    double        spaceShipPrevY;
+    boolean       spaceShipThrust;
+    boolean       shield;
+    double        shieldTimeLeft;
+    int           spaceShipExplosionFrame;
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Copies the current state of the world into this snapshot
+     * @param world the world, must not be ticked while it is captured
+     * @param nanos the System.nanoTime() of the capture which is used to interpolate from
+     */
+    void capture(final World world, final long nanos) {
+        this.nanos = nanos;
+
+        asteroids.clear();
+        for (World.Asteroid asteroid : world.getAsteroids()) {
+            asteroids.add(asteroid.prevX, asteroid.prevY, asteroid.x, asteroid.y, asteroid.rot, asteroid.scale, asteroid.imageIndex);
+        }
+        enemies.clear();
+        for (World.Enemy enemy : world.getEnemies()) {
+            enemies.add(enemy.prevX, enemy.prevY, enemy.x, enemy.y, enemy.rot, 1, enemy.imageIndex);
+        }
+        EntityList<World.EnemyBoss> bosses = world.getEnemyBosses();
+        enemyBosses.clear();
+        for (int i = 0 ; i < bosses.count ; i++) {
+            World.EnemyBoss enemyBoss = bosses.get(i);
+            enemyBosses.add(enemyBoss.prevX, enemyBoss.prevY, enemyBoss.x, enemyBoss.y, enemyBoss.rot, 1, enemyBoss.hits);
+        }
+        EntityList<World.Crystal> crystalList = world.getCrystals();
+        crystals.clear();
+        for (int i = 0 ; i < crystalList.count ; i++) {
+            World.Crystal crystal = crystalList.get(i);
+            crystals.add(crystal.prevX, crystal.prevY, crystal.x, crystal.y, crystal.rot, 1, 0);
+        }
+
+        torpedos.copy(world.getTorpedos());
+        rockets.copy(world.getRockets());
+        enemyTorpedos.copy(world.getEnemyTorpedos());
+        enemyBossTorpedos.copy(world.getEnemyBossTorpedos());
+
+        animations.copy(world.getAnimations());
+
+        World.SpaceShip          spaceShip          = world.getSpaceShip();
+        World.SpaceShipExplosion spaceShipExplosion = world.getSpaceShipExplosion();
+        noOfEntities             = world.getNoOfEntities();
+        score                    = world.getScore();
+        noOfLifes                = world.getNoOfLifes();
+        noOfShields              = world.getNoOfShields();
+        hasBeenHit               = world.hasBeenHit();
+        gameOver                 = world.isGameOver();
+        spaceShipX               = spaceShip.x;
+        spaceShipY               = spaceShip.y;
+        spaceShipPrevX           = spaceShip.prevX;
+        spaceShipPrevY           = spaceShip.prevY;
+        spaceShipThrust          = 0 != spaceShip.vX || 0 != spaceShip.vY;
+        shield                   = spaceShip.shield;
+        shieldTimeLeft           = world.getShieldTimeLeft();
+        spaceShipExplosionFrame  = spaceShipExplosion.frame;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Render state of all sprites of one kind. Image is the index of the
+     * image for sprites with variants or the id of the AnimationSheet for
+     * animations, frame is the frame of the sheet.
+     */
+    static final class Sprites {
+        int      count;
+        double[] prevX  = new double[16];
+        double[] prevY  = new double[16];
+        double[] x      = new double[16];
+        double[] y      = new double[16];
+        double[] rot    = new double[16];
+        double[] scale  = new double[16];
+        int[]    image  = new int[16];
+        int[]    frame  = new int[16];
+
+
+        void clear() { count = 0; }
+
+        void add(final double prevX, final double prevY, final double x, final double y, final double rot, final double scale, final int image) {
+            ensureCapacity(count + 1);
+            this.prevX[count] = prevX;
+            this.prevY[count] = prevY;
+            this.x[count]     = x;
+            this.y[count]     = y;
+            this.rot[count]   = rot;
+            this.scale[count] = scale;
+            this.image[count] = image;
+            count++;
+        }
+
+        void copy(final Projectiles projectiles) {
+            count = projectiles.count;
+            ensureCapacity(count);
+            System.arraycopy(projectiles.prevX, 0, prevX, 0, count);
+            System.arraycopy(projectiles.prevY, 0, prevY, 0, count);
+            System.arraycopy(projectiles.x, 0, x, 0, count);
+            System.arraycopy(projectiles.y, 0, y, 0, count);
+        }
+
+        void copy(final Animations animations) {
+            count = animations.count;
+            ensureCapacity(count);
+            System.arraycopy(animations.prevX, 0, prevX, 0, count);
+            System.arraycopy(animations.prevY, 0, prevY, 0, count);
+            System.arraycopy(animations.x, 0, x, 0, count);
+            System.arraycopy(animations.y, 0, y, 0, count);
+            System.arraycopy(animations.scale, 0, scale, 0, count);
+            System.arraycopy(animations.sheet, 0, image, 0, count);
+            System.arraycopy(animations.frame, 0, frame, 0, count);
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity <= x.length) { return; }
+            final int newCapacity = Math.max(capacity, x.length * 2);
+            prevX  = Arrays.copyOf(prevX, newCapacity);
+            prevY  = Arrays.copyOf(prevY, newCapacity);
+            x      = Arrays.copyOf(x, newCapacity);
+            y      = Arrays.copyOf(y, newCapacity);
+            rot    = Arrays.copyOf(rot, newCapacity);
+            scale  = Arrays.copyOf(scale, newCapacity);
+            image  = Arrays.copyOf(image, newCapacity);
+            frame  = Arrays.copyOf(frame, newCapacity);
+        }
+    }
+}
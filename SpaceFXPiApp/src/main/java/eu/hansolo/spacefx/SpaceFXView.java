@@ -18,6 +18,7 @@ package eu.hansolo.spacefx;
 
 
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.animation.PauseTransition;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.BooleanBinding;
@@ -32,51 +33,50 @@ import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.SplittableRandom;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 
 public class SpaceFXView extends BorderPane {
-    private static final double                               SCALING_FACTOR             = 0.5;
+    private static final double                               SCALING_FACTOR             = World.SCALING_FACTOR;
 
     //----------- Switches to switch on/off different features ----------------
-    private static final boolean                              SHOW_BACKGROUND            = true;
+    private static final boolean                              SHOW_BACKGROUND            = Boolean.parseBoolean(System.getProperty("spacefx.background", "true"));
     private static final boolean                              SHOW_STARS                 = true;
     private static final boolean                              SHOW_ENEMIES               = true;
     private static final boolean                              SHOW_ASTEROIDS             = true;
-    private static final int                                  NO_OF_STARS                = SHOW_STARS ? 100 : 0;
-    private static final int                                  NO_OF_ASTEROIDS            = SHOW_ASTEROIDS ? 15 : 0;
-    private static final int                                  NO_OF_ENEMIES              = SHOW_ENEMIES ? 5 : 0;
+    private static final int                                  NO_OF_STARS                = SHOW_STARS ? Integer.getInteger("spacefx.stars", 100) : 0;
+    private static final int                                  STAR_TILE_HEIGHT           = 128;
+    private static final int                                  NO_OF_ASTEROIDS            = SHOW_ASTEROIDS ? Integer.getInteger("spacefx.asteroids", World.DEFAULT_NO_OF_ASTEROIDS) : 0;
+    private static final int                                  NO_OF_ENEMIES              = SHOW_ENEMIES ? Integer.getInteger("spacefx.enemies", World.DEFAULT_NO_OF_ENEMIES) : 0;
+    private static final long                                 ENEMY_BOSS_INTERVAL        = nanos("spacefx.bossinterval", World.DEFAULT_ENEMY_BOSS_INTERVAL);
+    private static final long                                 CRYSTAL_INTERVAL           = nanos("spacefx.crystalinterval", World.DEFAULT_CRYSTAL_INTERVAL);
+    private static final boolean                              AUTO_FIRE                  = Boolean.getBoolean("spacefx.autofire");
+    private static final boolean                              AUTOPILOT                  = Boolean.getBoolean("spacefx.autopilot");
+    private static final boolean                              INVULNERABLE               = Boolean.getBoolean("spacefx.invulnerable");
+    private static final int                                  STRESS_TICKS               = Integer.getInteger("spacefx.stress.ticks", 0);
+    private static final int                                  LEAK_CHECK                 = Integer.getInteger("spacefx.leakcheck", 0);
     //-------------------------------------------------------------------------
-    private static final int                                  LIFES                      = 5;
-    private static final int                                  SHIELDS                    = 10;
-    private static final int                                  DEFLECTOR_SHIELD_TIME      = 5000;
-    private static final int                                  MAX_NO_OF_ROCKETS          = 3;
-    private static final double                               VELOCITY_FACTOR_X          = 0.7;
-    private static final double                               VELOCITY_FACTOR_Y          = 0.6;
-    private static final double                               VELOCITY_FACTOR_R          = 1.0;
-    private static final double                               TORPEDO_SPEED              = 6 * VELOCITY_FACTOR_Y;
-    private static final double                               ROCKET_SPEED               = 4 * VELOCITY_FACTOR_Y;
-    private static final double                               ENEMY_TORPEDO_SPEED        = 5 * VELOCITY_FACTOR_Y;
-    private static final double                               ENEMY_BOSS_TORPEDO_SPEED   = 6 * VELOCITY_FACTOR_Y;
-    private static final int                                  ENEMY_FIRE_SENSITIVITY     = 10;
-    private static final long                                 ENEMY_BOSS_ATTACK_INTERVAL = 20_000_000_000l;
-    private static final long                                 CRYSTAL_SPAWN_INTERVAL     = 25_000_000_000l;
-    private static final Random                               RND                        = new Random();
-    public  static final double                               WIDTH                      = 700 * SCALING_FACTOR;
-    public  static final double                               HEIGHT                     = 900 * SCALING_FACTOR;
-    private static final double                               FIRST_QUARTER_WIDTH        = WIDTH * 0.25;
-    private static final double                               LAST_QUARTER_WIDTH         = WIDTH * 0.75;
+    private static final long                                 SEED                       = Long.getLong("spacefx.seed", System.nanoTime());
+    public  static final double                               WIDTH                      = World.WIDTH;
+    public  static final double                               HEIGHT                     = World.HEIGHT;
     private static final double                               SHIELD_INDICATOR_X         = WIDTH * 0.73;
     private static final double                               SHIELD_INDICATOR_Y         = HEIGHT * 0.06;
     private static final double                               SHIELD_INDICATOR_WIDTH     = WIDTH * 0.26;
@@ -87,6 +87,22 @@ public class SpaceFXView extends BorderPane {
     private static final long                                 FPS_20                     = 0_050_000_000l;
     private static final long                                 FPS_10                     = 0_100_000_000l;
     private static final long                                 FPS_2                      = 0_500_000_000l;
+    private static final int                                  TICK_RATE                  = Integer.getInteger("spacefx.tickrate", 30);
+    private static final long                                 TICK_NANOS                 = 1_000_000_000l / TICK_RATE;
+    private static final long                                 MAX_FRAME_NANOS            = 0_250_000_000l; // drop simulation time after a stall instead of catching up
+    private static final boolean                              SIMULATION_THREAD          = Boolean.getBoolean("spacefx.simthread");
+    private static final String                               METRICS_FILE               = System.getProperty("spacefx.metrics");
+    private static final String                               RECORD_FILE                = System.getProperty("spacefx.record");
+    private static final boolean                              SPRITE_CACHE               = Boolean.getBoolean("spacefx.spritecache");
+    private static final int                                  SPRITE_CACHE_ANGLES        = Integer.getInteger("spacefx.spritecache.angles", 64);
+    private static final long                                 SPRITE_CACHE_BYTES         = Long.getLong("spacefx.spritecache.mb", 64) * 1024 * 1024;
+    private static final long                                 SPRITE_CACHE_SLICE_NANOS   = 2_000_000l;
+    private static final int                                  ATLAS_SIZE                 = Integer.getInteger("spacefx.atlas.size", 2048);
+    private static final Path                                 ASSET_CACHE_DIR            = assetCacheDir();
+    private static final int                                  BACKGROUND_TILE_HEIGHT     = 128;
+    private static final double                               BACKGROUND_START_Y         = 2079 * SCALING_FACTOR; // backgroundImg.getHeight() - HEIGHT, the viewport wraps back to it
+    private static final boolean                              DIRTY_RECTS                = Boolean.getBoolean("spacefx.dirtyrects");
+    private static final double                               HALF_DIAGONAL              = Math.sqrt(2) * 0.5; // bounds of a rotated square relative to its size
     private static final Color                                SCORE_COLOR                = Color.rgb(51, 210, 206);
     private static final String                               SPACE_BOY;
     private static       String                               spaceBoyName;
@@ -96,92 +112,84 @@ public class SpaceFXView extends BorderPane {
     private              List<SpaceFXView.Player>             hallOfFame;
     private              boolean                              inputAllowed;
     private              Text                                 userName;
-    private final        Image                                startImg                   = new Image(getClass().getResourceAsStream("startscreen.png"), 700 * SCALING_FACTOR, 900 * SCALING_FACTOR, true, false);
-    private final        Image                                gameOverImg                = new Image(getClass().getResourceAsStream("gameover.png"), 700 * SCALING_FACTOR, 900 * SCALING_FACTOR, true, false);
-    private final        Image                                backgroundImg              = new Image(getClass().getResourceAsStream("background.png"), 700 * SCALING_FACTOR, 3379 * SCALING_FACTOR, true, false);
-    private final        Image[]                              asteroidImages             = { new Image(getClass().getResourceAsStream("asteroid1.png"), 140 * SCALING_FACTOR, 140 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid2.png"), 140 * SCALING_FACTOR, 140 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid3.png"), 140 * SCALING_FACTOR, 140 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid4.png"), 110 * SCALING_FACTOR, 110 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid5.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid6.png"), 120 * SCALING_FACTOR, 120 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid7.png"), 110 * SCALING_FACTOR, 110 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid8.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid9.png"), 130 * SCALING_FACTOR, 130 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid10.png"), 120 * SCALING_FACTOR, 120 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("asteroid11.png"), 140 * SCALING_FACTOR, 140 * SCALING_FACTOR, true, false) };
-    private final        Image[]                              enemyImages                = { new Image(getClass().getResourceAsStream("enemy1.png"), 56 * SCALING_FACTOR, 56 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("enemy2.png"), 50 * SCALING_FACTOR, 50 * SCALING_FACTOR, true, false),
-                                                                                             new Image(getClass().getResourceAsStream("enemy3.png"), 68 * SCALING_FACTOR, 68 * SCALING_FACTOR, true, false) };
-    private final        Image                                enemyBossImg0              = new Image(getClass().getResourceAsStream("enemyBoss0.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossImg1              = new Image(getClass().getResourceAsStream("enemyBoss1.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossImg2              = new Image(getClass().getResourceAsStream("enemyBoss2.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossImg3              = new Image(getClass().getResourceAsStream("enemyBoss3.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossImg4              = new Image(getClass().getResourceAsStream("enemyBoss4.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                spaceshipImg               = new Image(getClass().getResourceAsStream("fighter.png"), 48 * SCALING_FACTOR, 48 * SCALING_FACTOR, true, false);
-    private final        Image                                spaceshipThrustImg         = new Image(getClass().getResourceAsStream("fighterThrust.png"), 48 * SCALING_FACTOR, 48 * SCALING_FACTOR, true, false);
-    private final        Image                                miniSpaceshipImg           = new Image(getClass().getResourceAsStream("fighter.png"), 16 * SCALING_FACTOR, 16 * SCALING_FACTOR, true, false);
-    private final        Image                                deflectorShieldImg         = new Image(getClass().getResourceAsStream("deflectorshield.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                miniDeflectorShieldImg     = new Image(getClass().getResourceAsStream("deflectorshield.png"), 16 * SCALING_FACTOR, 16 * SCALING_FACTOR, true, false);
-    private final        Image                                torpedoImg                 = new Image(getClass().getResourceAsStream("torpedo.png"), 17 * SCALING_FACTOR, 20 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyTorpedoImg            = new Image(getClass().getResourceAsStream("enemyTorpedo.png"), 21 * SCALING_FACTOR, 21 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossTorpedoImg        = new Image(getClass().getResourceAsStream("enemyBossTorpedo.png"), 26 * SCALING_FACTOR, 26 * SCALING_FACTOR, true, false);
-    private final        Image                                explosionImg               = new Image(getClass().getResourceAsStream("explosion.png"), 960 * SCALING_FACTOR, 768 * SCALING_FACTOR, true, false);
-    private final        Image                                asteroidExplosionImg       = new Image(getClass().getResourceAsStream("asteroidExplosion.png"), 2048 * SCALING_FACTOR, 1792 * SCALING_FACTOR, true, false);
-    private final        Image                                spaceShipExplosionImg      = new Image(getClass().getResourceAsStream("spaceshipexplosion.png"), 800 * SCALING_FACTOR, 600 * SCALING_FACTOR, true, false);
-    private final        Image                                hitImg                     = new Image(getClass().getResourceAsStream("torpedoHit2.png"), 400 * SCALING_FACTOR, 160 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossHitImg            = new Image(getClass().getResourceAsStream("torpedoHit.png"), 400 * SCALING_FACTOR, 160 * SCALING_FACTOR, true, false);
-    private final        Image                                enemyBossExplosionImg      = new Image(getClass().getResourceAsStream("enemyBossExplosion.png"), 800 * SCALING_FACTOR, 1400 * SCALING_FACTOR, true, false);
-    private final        Image                                crystalImg                 = new Image(getClass().getResourceAsStream("crystal.png"), 100 * SCALING_FACTOR, 100 * SCALING_FACTOR, true, false);
-    private final        Image                                crystalExplosionImg        = new Image(getClass().getResourceAsStream("crystalExplosion.png"), 400 * SCALING_FACTOR, 700 * SCALING_FACTOR, true, false);
-    private final        Image                                rocketImg                  = new Image(getClass().getResourceAsStream("rocket.png"), 17 * SCALING_FACTOR, 50 * SCALING_FACTOR, true, false);
-    private final        Image                                rocketExplosionImg         = new Image(getClass().getResourceAsStream("rocketExplosion.png"), 512 * SCALING_FACTOR, 896 * SCALING_FACTOR, true, false);
-    private final        double                               deflectorShieldRadius      = deflectorShieldImg.getRequestedWidth() * 0.5;
+    private              Image                                startImg;
+    private              Image                                gameOverImg;
+    private              TiledBackground                      background;
+    private              Image[]                              asteroidImages;
+    private              Image[]                              enemyImages;
+    private              Image[]                              enemyBossImages;
+    private              Image                                spaceshipImg;
+    private              Image                                spaceshipThrustImg;
+    private              Image                                miniSpaceshipImg;
+    private              Image                                deflectorShieldImg;
+    private              Image                                miniDeflectorShieldImg;
+    private              Image                                torpedoImg;
+    private              Image                                enemyTorpedoImg;
+    private              Image                                enemyBossTorpedoImg;
+    private              Image                                explosionImg;
+    private              Image                                asteroidExplosionImg;
+    private              Image                                spaceShipExplosionImg;
+    private              Image                                hitImg;
+    private              Image                                enemyBossHitImg;
+    private              Image                                enemyBossExplosionImg;
+    private              Image                                crystalImg;
+    private              Image                                crystalExplosionImg;
+    private              Image                                rocketImg;
+    private              Image                                rocketExplosionImg;
+    private              double                               deflectorShieldRadius;
     private              Font                                 scoreFont;
+    private              Font                                 metricsFont;
+    private              GlyphAtlas                           scoreGlyphs;
+    private              SplittableRandom                     effectsRandom;
+    private              SplittableRandom                     gameSeeds;
+    private              InputJournal.Recorder                recorder;
+    private              Autopilot                            autopilot;
     private              double                               backgroundViewportY;
+    private              Canvas                               backgroundCanvas;
+    private              GraphicsContext                      backgroundCtx;
+    private              StarField                            starField;
     private              Canvas                               canvas;
+    private              Canvas                               hudCanvas;
+    private              GraphicsContext                      hudCtx;
+    private              DirtyRegions                         dirtyRegions;
+    private              double                               drawnViewportY;
+    private              long                                 hudScore;
+    private              int                                  hudLifes;
+    private              int                                  hudShields;
     private              GraphicsContext                      ctx;
-    private              SpaceFXView.Star[]                   stars;
-    private              SpaceFXView.Asteroid[]               asteroids;
-    private              SpaceFXView.Enemy[]                  enemies;
-    private              SpaceFXView.SpaceShip                spaceShip;
-    private              SpaceFXView.SpaceShipExplosion       spaceShipExplosion;
-    private              List<SpaceFXView.EnemyBoss>          enemyBosses;
-    private              List<SpaceFXView.EnemyBoss>          enemyBossesToRemove;
-    private              List<SpaceFXView.Crystal>            crystals;
-    private              List<SpaceFXView.Crystal>            crystalsToRemove;
-    private              List<SpaceFXView.Torpedo>            torpedos;
-    private              List<SpaceFXView.Torpedo>            torpedosToRemove;
-    private              List<SpaceFXView.Rocket>             rockets;
-    private              List<SpaceFXView.Rocket>             rocketsToRemove;
-    private              List<SpaceFXView.RocketExplosion>    rocketExplosions;
-    private              List<SpaceFXView.RocketExplosion>    rocketExplosionsToRemove;
-    private              List<SpaceFXView.EnemyTorpedo>       enemyTorpedos;
-    private              List<SpaceFXView.EnemyTorpedo>       enemyTorpedosToRemove;
-    private              List<SpaceFXView.EnemyBossTorpedo>   enemyBossTorpedos;
-    private              List<SpaceFXView.EnemyBossTorpedo>   enemyBossTorpedosToRemove;
-    private              List<SpaceFXView.EnemyBossExplosion> enemyBossExplosions;
-    private              List<SpaceFXView.EnemyBossExplosion> enemyBossExplosionsToRemove;
-    private              List<SpaceFXView.Explosion>          explosions;
-    private              List<SpaceFXView.Explosion>          explosionsToRemove;
-    private              List<SpaceFXView.AsteroidExplosion>  asteroidExplosions;
-    private              List<SpaceFXView.AsteroidExplosion>  asteroidExplosionsToRemove;
-    private              List<SpaceFXView.CrystalExplosion>   crystalExplosions;
-    private              List<SpaceFXView.CrystalExplosion>   crystalExplosionsToRemove;
-    private              List<SpaceFXView.Hit>                hits;
-    private              List<SpaceFXView.Hit>                hitsToRemove;
-    private              List<SpaceFXView.EnemyBossHit>       enemyBossHits;
-    private              List<SpaceFXView.EnemyBossHit>       enemyBossHitsToRemove;
-    private              long                                 score;
+    private              World                                world;
+    private              Controls                             controls;
+    private              TripleBuffer<Snapshot>               snapshots;
+    private              Simulation                           simulation;
+    private              FrameMetrics                         metrics;
+    private              boolean                              showMetrics;
+    private              Assets                               assets;
+    private              boolean                              assetsLoaded;
+    private              TextureAtlas                         atlas;
+    private              TextureAtlas                         effectsAtlas;
+    private              TextureAtlas.Region[]                asteroidRegions;
+    private              TextureAtlas.Region[]                enemyRegions;
+    private              TextureAtlas.Region[]                enemyBossRegions;
+    private              TextureAtlas.Region                  spaceshipRegion;
+    private              TextureAtlas.Region                  spaceshipThrustRegion;
+    private              TextureAtlas.Region                  miniSpaceshipRegion;
+    private              TextureAtlas.Region                  deflectorShieldRegion;
+    private              TextureAtlas.Region                  miniDeflectorShieldRegion;
+    private              TextureAtlas.Region                  torpedoRegion;
+    private              TextureAtlas.Region                  enemyTorpedoRegion;
+    private              TextureAtlas.Region                  enemyBossTorpedoRegion;
+    private              TextureAtlas.Region                  crystalRegion;
+    private              TextureAtlas.Region                  rocketRegion;
+    private              TextureAtlas.Region[]                animationRegions;
+    private              SpriteCache                          spriteCache;
+    private              int[]                                asteroidSprites;
+    private              int[]                                enemySprites;
+    private              int                                  crystalSprite;
     private              double                               scorePosX;
     private              double                               scorePosY;
-    private              boolean                              hasBeenHit;
-    private              int                                  noOfLifes;
-    private              int                                  noOfShields;
-    private              long                                 lastShieldActivated;
-    private              long                                 lastEnemyBossAttack;
-    private              long                                 lastCrystal;
     private              long                                 lastTimerCall;
+    private              long                                 accumulator;
+    private              long                                 gameStart;
     private              AnimationTimer                       timer;
     private              BooleanBinding                       showing;
 
@@ -197,7 +205,7 @@ public class SpaceFXView extends BorderPane {
         init();
         //setupBinding();
 
-        setCenter(canvas);
+        setCenter(new StackPane(backgroundCanvas, starField.getLayer(), canvas, hudCanvas));
         setBackground(new Background(new BackgroundFill(Color.BLACK, CornerRadii.EMPTY, Insets.EMPTY)));
     }
 
@@ -205,6 +213,8 @@ public class SpaceFXView extends BorderPane {
     // ******************** Methods *******************************************
     private void init() {
         scoreFont        = spaceBoy(60 * SCALING_FACTOR);
+        metricsFont      = Font.font("Monospaced", 12 * SCALING_FACTOR);
+        scoreGlyphs      = new GlyphAtlas(scoreFont, SCORE_COLOR);
         running          = false;
         gameOverScreen   = false;
         hallOfFameScreen = false;
@@ -226,68 +236,94 @@ public class SpaceFXView extends BorderPane {
         userName.setVisible(false);
 
         // Variable initialization
-        backgroundViewportY         = 2079 * SCALING_FACTOR; //backgroundImg.getHeight() - HEIGHT;
+        backgroundViewportY         = BACKGROUND_START_Y;
+        backgroundCanvas            = new Canvas(WIDTH, HEIGHT);
+        backgroundCtx               = backgroundCanvas.getGraphicsContext2D();
+        starField                   = new StarField((int) WIDTH, (int) HEIGHT, STAR_TILE_HEIGHT, NO_OF_STARS, RandomStream.STARS.create(SEED));
+        effectsRandom               = RandomStream.EFFECTS.create(SEED);
+        gameSeeds                   = RandomStream.GAMES.create(SEED);
         canvas                      = new Canvas(WIDTH, HEIGHT);
         ctx                         = canvas.getGraphicsContext2D();
-        stars                       = new SpaceFXView.Star[NO_OF_STARS];
-        asteroids                   = new SpaceFXView.Asteroid[NO_OF_ASTEROIDS];
-        enemies                     = new SpaceFXView.Enemy[NO_OF_ENEMIES];
-        spaceShip                   = new SpaceFXView.SpaceShip(spaceshipImg, spaceshipThrustImg);
-        spaceShipExplosion          = new SpaceFXView.SpaceShipExplosion(0, 0);
-        enemyBosses                 = new ArrayList<>();
-        enemyBossesToRemove         = new ArrayList<>();
-        crystals                    = new ArrayList<>();
-        crystalsToRemove            = new ArrayList<>();
-        rockets                     = new ArrayList<>();
-        rocketsToRemove             = new ArrayList<>();
-        torpedos                    = new ArrayList<>();
-        torpedosToRemove            = new ArrayList<>();
-        rocketExplosions            = new ArrayList<>();
-        rocketExplosionsToRemove    = new ArrayList<>();
-        explosions                  = new ArrayList<>();
-        explosionsToRemove          = new ArrayList<>();
-        asteroidExplosions          = new ArrayList<>();
-        asteroidExplosionsToRemove  = new ArrayList<>();
-        crystalExplosions           = new ArrayList<>();
-        crystalExplosionsToRemove   = new ArrayList<>();
-        enemyTorpedos               = new ArrayList<>();
-        enemyTorpedosToRemove       = new ArrayList<>();
-        enemyBossTorpedos           = new ArrayList<>();
-        enemyBossTorpedosToRemove   = new ArrayList<>();
-        enemyBossExplosions         = new ArrayList<>();
-        enemyBossExplosionsToRemove = new ArrayList<>();
-        hits                        = new ArrayList<>();
-        hitsToRemove                = new ArrayList<>();
-        enemyBossHits               = new ArrayList<>();
-        enemyBossHitsToRemove       = new ArrayList<>();
-        score                       = 0;
-        hasBeenHit                  = false;
-        noOfLifes                   = LIFES;
-        noOfShields                 = SHIELDS;
-        lastShieldActivated         = 0;
-        lastEnemyBossAttack         = System.nanoTime();
-        lastCrystal                 = System.nanoTime();
-        long deltaTime              = FPS_30;
+        hudCanvas                   = new Canvas(WIDTH, HEIGHT);
+        hudCtx                      = hudCanvas.getGraphicsContext2D();
+        dirtyRegions                = new DirtyRegions(WIDTH, HEIGHT, 0.5);
+        drawnViewportY              = Double.NaN;
+        world                       = new World(NO_OF_ASTEROIDS, NO_OF_ENEMIES, SEED);
+        controls                    = new Controls();
+        world.setEnemyBossInterval(ENEMY_BOSS_INTERVAL);
+        world.setCrystalInterval(CRYSTAL_INTERVAL);
+        world.setInvulnerable(INVULNERABLE);
+        if (LEAK_CHECK > 0) { world.setLeakDetector(new LeakDetector(world.getStores(), LEAK_CHECK, System.err)); }
+        controls.setAutoFire(AUTO_FIRE);
+        snapshots                   = new TripleBuffer<>(Snapshot::new);
+        metrics                     = new FrameMetrics();
+        simulation                  = new Simulation(world, controls, snapshots, TICK_NANOS, metrics);
+        autopilot                   = AUTOPILOT ? new DodgeAndShootAutopilot() : null;
+        simulation.setAutopilot(autopilot);
         timer                       = new AnimationTimer() {
             @Override public void handle(final long now) {
-                if (now > lastTimerCall) {
-                    lastTimerCall = now + deltaTime;
-                    updateAndDraw();
+                long frameNanos = 0 == lastTimerCall ? 0 : Math.min(now - lastTimerCall, MAX_FRAME_NANOS);
+                lastTimerCall   = now;
+                metrics.beginFrame();
+
+                Snapshot snapshot;
+                double   alpha;
+                if (SIMULATION_THREAD) {
+                    // The world is ticked on the simulation thread, only draw its latest snapshot
+                    snapshot = snapshots.getFront();
+                    alpha    = Math.min(1.0, Math.max(0.0, (System.nanoTime() - snapshot.nanos) / (double) TICK_NANOS));
+                } else {
+                    // Run the simulation in fixed steps of TICK_NANOS, independent of the frame rate
+                    accumulator += frameNanos;
+                    while (accumulator >= TICK_NANOS && !world.isGameOver()) {
+                        if (null != autopilot) { autopilot.steer(world, controls); }
+                        controls.applyTo(world);
+                        long tickStart = System.nanoTime();
+                        world.tick(TICK_NANOS);
+                        metrics.recordTick(System.nanoTime() - tickStart);
+                        accumulator -= TICK_NANOS;
+                    }
+                    snapshots.getBack().capture(world, now);
+                    snapshots.publish();
+                    snapshot = snapshots.getFront();
+                    alpha    = accumulator / (double) TICK_NANOS;
+                }
+                metrics.mark(FrameMetrics.Phase.SIMULATION);
+                draw(snapshot, frameNanos / (double) World.TICK_NANOS, alpha);
+                metrics.endFrame(snapshot.noOfEntities);
+                // Render the sprite cache in the idle time after the frame instead of while drawing
+                if (null != spriteCache && !spriteCache.isComplete()) { spriteCache.prerender(SPRITE_CACHE_SLICE_NANOS); }
+                if (STRESS_TICKS > 0 && metrics.getNoOfTicks() >= STRESS_TICKS) {
+                    finishStressTest();
+                    return;
                 }
-                if (now > lastEnemyBossAttack + ENEMY_BOSS_ATTACK_INTERVAL) {
-                    spawnEnemyBoss();
-                    lastEnemyBossAttack = now;
+                if (showMetrics) {
+                    drawMetrics();
                 }
-                if (now > lastCrystal + CRYSTAL_SPAWN_INTERVAL) {
-                    spawnCrystal();
-                    lastCrystal = now;
+                if (snapshot.gameOver) {
+                    gameOver();
                 }
             }
         };
 
-        initStars();
-        initAsteroids();
-        initEnemies();
+        if (null != RECORD_FILE) {
+            try {
+                recorder = new InputJournal.Recorder(Paths.get(RECORD_FILE));
+                controls.setRecorder(recorder);
+            } catch (IOException e) {
+                System.err.println("Could not record input to " + RECORD_FILE + ": " + e.getMessage());
+            }
+        }
+
+        if (null != METRICS_FILE) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    metrics.export(Paths.get(METRICS_FILE));
+                } catch (IOException e) {
+                    System.err.println("Could not write metrics to " + METRICS_FILE + ": " + e.getMessage());
+                }
+            }, "SpaceFX Metrics"));
+        }
 
         scorePosX = WIDTH * 0.5;
         scorePosY = 40 * SCALING_FACTOR;
@@ -296,7 +332,189 @@ public class SpaceFXView extends BorderPane {
         ctx.setFont(scoreFont);
         ctx.setTextAlign(TextAlignment.CENTER);
         ctx.setTextBaseline(VPos.CENTER);
-        ctx.drawImage(startImg, 0, 0);
+
+        loadAssets();
+    }
+
+    /**
+     * Loads all images in parallel in the order they are needed. The start
+     * screen is drawn as soon as it is available and the game can be started
+     * after onAssetsLoaded() was called. The large sheets of the animations
+     * and the game over screen are queued last, they are not drawn until
+     * onEffectsLoaded() was called.
+     */
+    private void loadAssets() {
+        assets           = new Assets(SCALING_FACTOR, ASSET_CACHE_DIR);
+        asteroidImages   = new Image[11];
+        enemyImages      = new Image[3];
+        enemyBossImages  = new Image[5];
+        animationRegions = new TextureAtlas.Region[World.ANIMATION_SHEETS.length];
+        CompletableFuture<Void> startScreen = assets.load("startscreen.png", 700, 900).thenAcceptAsync(image -> {
+            startImg = image;
+            if (!running) { ctx.drawImage(startImg, 0, 0); }
+        }, Platform::runLater);
+        CompletableFuture<Void> gameplay = CompletableFuture.allOf(startScreen,
+                                                                   assets.loadTiles("background.png", 700, 3379, BACKGROUND_TILE_HEIGHT).thenAccept(tiles -> background = new TiledBackground(tiles, HEIGHT, BACKGROUND_START_Y)),
+                                                                   load("asteroid1.png", 140, 140, image -> asteroidImages[0] = image),
+                                                                   load("asteroid2.png", 140, 140, image -> asteroidImages[1] = image),
+                                                                   load("asteroid3.png", 140, 140, image -> asteroidImages[2] = image),
+                                                                   load("asteroid4.png", 110, 110, image -> asteroidImages[3] = image),
+                                                                   load("asteroid5.png", 100, 100, image -> asteroidImages[4] = image),
+                                                                   load("asteroid6.png", 120, 120, image -> asteroidImages[5] = image),
+                                                                   load("asteroid7.png", 110, 110, image -> asteroidImages[6] = image),
+                                                                   load("asteroid8.png", 100, 100, image -> asteroidImages[7] = image),
+                                                                   load("asteroid9.png", 130, 130, image -> asteroidImages[8] = image),
+                                                                   load("asteroid10.png", 120, 120, image -> asteroidImages[9] = image),
+                                                                   load("asteroid11.png", 140, 140, image -> asteroidImages[10] = image),
+                                                                   load("enemy1.png", 56, 56, image -> enemyImages[0] = image),
+                                                                   load("enemy2.png", 50, 50, image -> enemyImages[1] = image),
+                                                                   load("enemy3.png", 68, 68, image -> enemyImages[2] = image),
+                                                                   load("enemyBoss0.png", 100, 100, image -> enemyBossImages[0] = image),
+                                                                   load("enemyBoss1.png", 100, 100, image -> enemyBossImages[1] = image),
+                                                                   load("enemyBoss2.png", 100, 100, image -> enemyBossImages[2] = image),
+                                                                   load("enemyBoss3.png", 100, 100, image -> enemyBossImages[3] = image),
+                                                                   load("enemyBoss4.png", 100, 100, image -> enemyBossImages[4] = image),
+                                                                   load("fighter.png", 48, 48, image -> spaceshipImg = image),
+                                                                   load("fighterThrust.png", 48, 48, image -> spaceshipThrustImg = image),
+                                                                   load("fighter.png", 16, 16, image -> miniSpaceshipImg = image),
+                                                                   load("deflectorshield.png", 100, 100, image -> deflectorShieldImg = image),
+                                                                   load("deflectorshield.png", 16, 16, image -> miniDeflectorShieldImg = image),
+                                                                   load("torpedo.png", 17, 20, image -> torpedoImg = image),
+                                                                   load("enemyTorpedo.png", 21, 21, image -> enemyTorpedoImg = image),
+                                                                   load("enemyBossTorpedo.png", 26, 26, image -> enemyBossTorpedoImg = image),
+                                                                   load("crystal.png", 100, 100, image -> crystalImg = image),
+                                                                   load("rocket.png", 17, 50, image -> rocketImg = image))
+                                                            .thenRunAsync(this::onAssetsLoaded, Platform::runLater);
+        CompletableFuture<Void> effects = CompletableFuture.allOf(load("explosion.png", 960, 768, image -> explosionImg = image),
+                                                                  load("asteroidExplosion.png", 2048, 1792, image -> asteroidExplosionImg = image),
+                                                                  load("spaceshipexplosion.png", 800, 600, image -> spaceShipExplosionImg = image),
+                                                                  load("torpedoHit2.png", 400, 160, image -> hitImg = image),
+                                                                  load("torpedoHit.png", 400, 160, image -> enemyBossHitImg = image),
+                                                                  load("enemyBossExplosion.png", 800, 1400, image -> enemyBossExplosionImg = image),
+                                                                  load("crystalExplosion.png", 400, 700, image -> crystalExplosionImg = image),
+                                                                  load("rocketExplosion.png", 512, 896, image -> rocketExplosionImg = image),
+                                                                  load("gameover.png", 700, 900, image -> gameOverImg = image))
+                                                           .thenRunAsync(this::onEffectsLoaded, Platform::runLater);
+        CompletableFuture.allOf(gameplay, effects)
+                         .whenComplete((result, throwable) -> {
+                             assets.shutdown();
+                             if (null != throwable) { System.err.println("Could not load assets: " + throwable.getMessage()); }
+                         });
+    }
+
+    private CompletableFuture<Void> load(final String name, final double width, final double height, final Consumer<Image> consumer) {
+        return assets.load(name, width, height).thenAccept(consumer);
+    }
+
+    private void onAssetsLoaded() {
+        deflectorShieldRadius = deflectorShieldImg.getWidth() * 0.5;
+        background.prefetch(backgroundViewportY);
+        initAtlas();
+
+        if (SPRITE_CACHE) {
+            spriteCache     = new SpriteCache(SPRITE_CACHE_ANGLES, SPRITE_CACHE_BYTES);
+            asteroidSprites = new int[asteroidImages.length];
+            enemySprites    = new int[enemyImages.length];
+            for (int i = 0 ; i < asteroidImages.length ; i++) {
+                asteroidSprites[i] = spriteCache.add(asteroidImages[i], World.ASTEROID_MIN_SCALE, World.ASTEROID_MIN_SCALE + World.ASTEROID_SCALE_RANGE);
+            }
+            for (int i = 0 ; i < enemyImages.length ; i++) { enemySprites[i] = spriteCache.add(enemyImages[i]); }
+            crystalSprite   = spriteCache.add(crystalImg);
+        }
+        assetsLoaded = true;
+        if (STRESS_TICKS > 0) { startGame(); }
+    }
+
+    private void onEffectsLoaded() {
+        effectsAtlas = TextureAtlas.pack(ATLAS_SIZE, explosionImg, asteroidExplosionImg, spaceShipExplosionImg, hitImg, enemyBossHitImg,
+                                         enemyBossExplosionImg, crystalExplosionImg, rocketExplosionImg);
+        int index = 0;
+        animationRegions[World.EXPLOSION.id]            = effectsAtlas.getRegion(index++);
+        animationRegions[World.ASTEROID_EXPLOSION.id]   = effectsAtlas.getRegion(index++);
+        animationRegions[World.SPACESHIP_EXPLOSION.id]  = effectsAtlas.getRegion(index++);
+        animationRegions[World.HIT.id]                  = effectsAtlas.getRegion(index++);
+        animationRegions[World.ENEMY_BOSS_HIT.id]       = effectsAtlas.getRegion(index++);
+        animationRegions[World.ENEMY_BOSS_EXPLOSION.id] = effectsAtlas.getRegion(index++);
+        animationRegions[World.CRYSTAL_EXPLOSION.id]    = effectsAtlas.getRegion(index++);
+        animationRegions[World.ROCKET_EXPLOSION.id]     = effectsAtlas.getRegion(index++);
+    }
+
+    /**
+     * Packs all sprites into a texture atlas, the draw calls only use the
+     * regions of the atlas. The sheets of the animations are packed into a
+     * second atlas once they are loaded.
+     */
+    private void initAtlas() {
+        List<Image> images = new ArrayList<>();
+        Collections.addAll(images, asteroidImages);
+        Collections.addAll(images, enemyImages);
+        Collections.addAll(images, enemyBossImages);
+        Collections.addAll(images, spaceshipImg, spaceshipThrustImg, miniSpaceshipImg, deflectorShieldImg, miniDeflectorShieldImg, torpedoImg, enemyTorpedoImg,
+                           enemyBossTorpedoImg, crystalImg, rocketImg);
+        atlas = TextureAtlas.pack(ATLAS_SIZE, images.toArray(new Image[0]));
+
+        int index = 0;
+        asteroidRegions           = atlas.getRegions(index, asteroidImages.length);
+        index                    += asteroidImages.length;
+        enemyRegions              = atlas.getRegions(index, enemyImages.length);
+        index                    += enemyImages.length;
+        enemyBossRegions          = atlas.getRegions(index, enemyBossImages.length);
+        index                    += enemyBossImages.length;
+        spaceshipRegion           = atlas.getRegion(index++);
+        spaceshipThrustRegion     = atlas.getRegion(index++);
+        miniSpaceshipRegion       = atlas.getRegion(index++);
+        deflectorShieldRegion     = atlas.getRegion(index++);
+        miniDeflectorShieldRegion = atlas.getRegion(index++);
+        torpedoRegion             = atlas.getRegion(index++);
+        enemyTorpedoRegion        = atlas.getRegion(index++);
+        enemyBossTorpedoRegion    = atlas.getRegion(index++);
+        crystalRegion             = atlas.getRegion(index++);
+        rocketRegion              = atlas.getRegion(index++);
+    }
+
+    /**
+     * Starts a new game, called when P is pressed or when the assets of a stress test are loaded
+     */
+    private void startGame() {
+        ctx.clearRect(0, 0, WIDTH, HEIGHT);
+        dirtyRegions.reset();
+        drawnViewportY = Double.NaN;
+        hudScore       = -1;
+        if (SHOW_BACKGROUND) {
+            background.draw(backgroundCtx, backgroundViewportY);
+        }
+        running       = true;
+        lastTimerCall = 0;
+        accumulator   = 0;
+        gameStart     = System.nanoTime();
+        controls.reset();
+        // Every game starts from its own seed, so it can be replayed from the journal
+        long gameSeed = gameSeeds.nextLong();
+        world.reset(gameSeed);
+        if (null != recorder) { recorder.startGame(world, TICK_NANOS); }
+        snapshots.getBack().capture(world, System.nanoTime());
+        snapshots.publish();
+        if (SIMULATION_THREAD) {
+            simulation.start();
+        }
+        timer.start();
+    }
+
+    /**
+     * Ends a run that was started with -Dspacefx.stress.ticks, prints the metrics and quits
+     */
+    private void finishStressTest() {
+        timer.stop();
+        simulation.stop();
+        running = false;
+        final double seconds = (System.nanoTime() - gameStart) / 1e9;
+        final long   ticks   = metrics.getNoOfTicks();
+        final long   frames  = metrics.getFrame().getCount();
+        System.out.println(String.format(Locale.ROOT, "%d asteroids, %d enemies, %d stars, %.2f s, %.0f ticks/s, %.1f fps",
+                                         NO_OF_ASTEROIDS, NO_OF_ENEMIES, NO_OF_STARS, seconds, ticks / seconds, frames / seconds));
+        StressTest.print(System.out, metrics.getFrame(), 1_000_000.0, "ms");
+        StressTest.print(System.out, metrics.getTick(), 1_000_000.0, "ms");
+        Platform.exit();
     }
 
     public void registerListeners() {
@@ -304,52 +522,29 @@ public class SpaceFXView extends BorderPane {
 
         // Setup key listener
         scene.setOnKeyPressed(e -> {
-            if (running) {
+            if (e.getCode() == KeyCode.I) {
+                showMetrics = !showMetrics;
+            } else if (running) {
                 switch(e.getCode()) {
-                    case UP:
-                        spaceShip.vY = -5;
-                        break;
-                    case RIGHT:
-                        spaceShip.vX = 5;
-                        break;
-                    case DOWN:
-                        spaceShip.vY = 5;
-                        break;
-                    case LEFT:
-                        spaceShip.vX = -5;
-                        break;
-                    case S:
-                        if (noOfShields > 0 && !spaceShip.shield) {
-                            lastShieldActivated = System.currentTimeMillis();
-                            spaceShip.shield    = true;
-                        }
-                        break;
-                    case R:
-                        // Max 5 rockets at the same time
-                        if (rockets.size() < MAX_NO_OF_ROCKETS) {
-                            spawnRocket(spaceShip.x, spaceShip.y);
-                        }
-                        break;
-                    case SPACE:
-                        spawnTorpedo(spaceShip.x, spaceShip.y);
-                        break;
-                }
-            } else if (e.getCode() == KeyCode.P && !gameOverScreen) {
-                ctx.clearRect(0, 0, WIDTH, HEIGHT);
-                if (SHOW_BACKGROUND) {
-                    ctx.drawImage(backgroundImg, 0, 0);
+                    case UP   : controls.setSpaceShipVY(-5); break;
+                    case RIGHT: controls.setSpaceShipVX(5); break;
+                    case DOWN : controls.setSpaceShipVY(5); break;
+                    case LEFT : controls.setSpaceShipVX(-5); break;
+                    case S    : controls.activateShield(); break;
+                    case R    : controls.fireRocket(); break;
+                    case SPACE: controls.fireTorpedo(); break;
                 }
-                running = true;
-                timer.start();
+            } else if (e.getCode() == KeyCode.P && !gameOverScreen && assetsLoaded) {
+                startGame();
             }
         });
         scene.setOnKeyReleased( e -> {
             if (running) {
                 switch (e.getCode()) {
-                    case UP   : spaceShip.vY = 0; break;
-                    case RIGHT: spaceShip.vX = 0; break;
-                    case DOWN : spaceShip.vY = 0; break;
-                    case LEFT : spaceShip.vX = 0; break;
+                    case UP   : controls.setSpaceShipVY(0); break;
+                    case RIGHT: controls.setSpaceShipVX(0); break;
+                    case DOWN : controls.setSpaceShipVY(0); break;
+                    case LEFT : controls.setSpaceShipVX(0); break;
                 }
             }
         });
@@ -381,475 +576,307 @@ public class SpaceFXView extends BorderPane {
         });
     }
 
-    private void initStars() {
-        for (int i = 0 ; i < NO_OF_STARS ; i++) {
-            SpaceFXView.Star star =  new SpaceFXView.Star();
-            star.y = RND.nextDouble() * HEIGHT;
-            stars[i] = star;
-        }
-    }
-
-    private void initAsteroids() {
-        for (int i = 0 ; i < NO_OF_ASTEROIDS ; i++) {
-            asteroids[i] = new SpaceFXView.Asteroid(asteroidImages[RND.nextInt(asteroidImages.length)]);
-        }
-    }
-
-    private void initEnemies() {
-        for (int i = 0 ; i < NO_OF_ENEMIES ; i ++) {
-            enemies[i] = new SpaceFXView.Enemy(enemyImages[RND.nextInt(enemyImages.length)]);
-        }
-    }
-
-
-    // Update and draw
-    private void updateAndDraw() {
-        torpedosToRemove.clear();
-        rocketsToRemove.clear();
-        enemyTorpedosToRemove.clear();
-        explosionsToRemove.clear();
-        hitsToRemove.clear();
-        enemyBossHitsToRemove.clear();
-        asteroidExplosionsToRemove.clear();
-        enemyBossExplosionsToRemove.clear();
-        rocketExplosionsToRemove.clear();
-        crystalsToRemove.clear();
-        enemyBossesToRemove.clear();
-        enemyBossTorpedosToRemove.clear();
 
-        ctx.clearRect(0, 0, WIDTH, HEIGHT);
-
-        // Draw background
+    // Draw
+    /**
+     * Draws a snapshot of the world, positions are interpolated between the last two ticks
+     * @param snapshot the state of the world after the last tick
+     * @param speed    the length of the frame relative to World.TICK_NANOS which scales the background and the stars
+     * @param alpha    the fraction of the next tick that has already passed
+     */
+    private void draw(final Snapshot snapshot, final double speed, final double alpha) {
+        // Draw background, its layer is only redrawn when it moved by at least a pixel
         if (SHOW_BACKGROUND) {
-            backgroundViewportY -= 0.5;
+            backgroundViewportY -= 0.5 * speed;
             if (backgroundViewportY <= 0) {
-                backgroundViewportY = 2079 * SCALING_FACTOR; //backgroundImg.getHeight() - HEIGHT;
+                backgroundViewportY = BACKGROUND_START_Y;
+            }
+            double viewportY = Math.round(backgroundViewportY);
+            if (viewportY != drawnViewportY) {
+                background.draw(backgroundCtx, viewportY);
+                drawnViewportY = viewportY;
             }
-            ctx.drawImage(backgroundImg, 0, backgroundViewportY, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT);
         }
+        metrics.mark(FrameMetrics.Phase.BACKGROUND);
 
         // Draw Stars
         if (SHOW_STARS) {
-            ctx.setFill(Color.rgb(255, 255, 255, 0.9));
-            for (int i = 0; i < NO_OF_STARS; i++) {
-                SpaceFXView.Star star = stars[i];
-                star.update();
-                ctx.fillOval(star.x, star.y, star.size, star.size);
-            }
+            starField.update(speed);
+        }
+        metrics.mark(FrameMetrics.Phase.STARS);
+
+        // Clear the sprite layer
+        if (DIRTY_RECTS) {
+            dirtyRegions.clear(ctx);
+        } else {
+            ctx.clearRect(0, 0, WIDTH, HEIGHT);
         }
 
         // Draw Asteroids
-        for (int i = 0 ; i < NO_OF_ASTEROIDS ; i++) {
-            SpaceFXView.Asteroid asteroid = asteroids[i];
-            asteroid.update();
+        Snapshot.Sprites asteroids = snapshot.asteroids;
+        for (int i = 0 ; i < asteroids.count ; i++) {
+            int    imageIndex = asteroids.image[i];
+            double imgCenterX = World.ASTEROID_WIDTHS[imageIndex] * 0.5;
+            double imgCenterY = World.ASTEROID_HEIGHTS[imageIndex] * 0.5;
+            double centerX    = lerp(asteroids.prevX[i], asteroids.x[i], alpha) + imgCenterX;
+            double centerY    = lerp(asteroids.prevY[i], asteroids.y[i], alpha) + imgCenterY;
+            Image  sprite     = SPRITE_CACHE ? spriteCache.get(asteroidSprites[imageIndex], asteroids.rot[i], asteroids.scale[i]) : null;
+            if (null != sprite) {
+                drawSprite(sprite, centerX, centerY);
+                continue;
+            }
+            markDirty(centerX, centerY, Math.max(imgCenterX, imgCenterY) * 2 * HALF_DIAGONAL * asteroids.scale[i]);
             ctx.save();
-            ctx.translate(asteroid.cX, asteroid.cY);
-            ctx.rotate(asteroid.rot);
-            ctx.scale(asteroid.scale, asteroid.scale);
-            ctx.translate(-asteroid.imgCenterX, -asteroid.imgCenterY);
-            ctx.drawImage(asteroid.image, 0, 0);
+            ctx.translate(centerX, centerY);
+            ctx.rotate(asteroids.rot[i]);
+            ctx.scale(asteroids.scale[i], asteroids.scale[i]);
+            ctx.translate(-imgCenterX, -imgCenterY);
+            drawRegion(asteroidRegions[imageIndex], 0, 0);
             ctx.restore();
-
-            // Check for torpedo hits
-            for (SpaceFXView.Torpedo torpedo : torpedos) {
-                if (isHitCircleCircle(torpedo.x, torpedo.y, torpedo.radius, asteroid.cX, asteroid.cY, asteroid.radius)) {
-                    asteroid.hits--;
-                    if (asteroid.hits == 0) {
-                        asteroidExplosions.add(new SpaceFXView.AsteroidExplosion(asteroid.cX - SpaceFXView.AsteroidExplosion.FRAME_CENTER * asteroid.scale, asteroid.cY - SpaceFXView.AsteroidExplosion.FRAME_CENTER * asteroid.scale, asteroid.vX, asteroid.vY, asteroid.scale));
-                        score += asteroid.value;
-                        asteroid.respawn();
-                        torpedosToRemove.add(torpedo);
-                    } else {
-                        hits.add(new SpaceFXView.Hit(torpedo.x - SpaceFXView.Hit.FRAME_CENTER, torpedo.y - SpaceFXView.Hit.FRAME_HEIGHT, asteroid.vX, asteroid.vY));
-                        torpedosToRemove.add(torpedo);
-                    }
-                }
-            }
-
-            // Check for rocket hits
-            for (SpaceFXView.Rocket rocket : rockets) {
-                if (isHitCircleCircle(rocket.x, rocket.y, rocket.radius, asteroid.cX, asteroid.cY, asteroid.radius)) {
-                    rocketExplosions.add(new SpaceFXView.RocketExplosion(asteroid.cX - SpaceFXView.RocketExplosion.FRAME_CENTER * asteroid.scale, asteroid.cY - SpaceFXView.RocketExplosion.FRAME_CENTER * asteroid.scale, asteroid.vX, asteroid.vY, asteroid.scale));
-                    score += asteroid.value;
-                    asteroid.respawn();
-                    rocketsToRemove.add(rocket);
-                }
-            }
-
-            // Check for space ship hit
-            if (!hasBeenHit) {
-                boolean hit;
-                if (spaceShip.shield) {
-                    hit = isHitCircleCircle(spaceShip.x, spaceShip.y, deflectorShieldRadius, asteroid.cX, asteroid.cY, asteroid.radius);
-                } else {
-                    hit = isHitCircleCircle(spaceShip.x, spaceShip.y, spaceShip.radius, asteroid.cX, asteroid.cY, asteroid.radius);
-                }
-                if (hit) {
-                    spaceShipExplosion.countX = 0;
-                    spaceShipExplosion.countY = 0;
-                    spaceShipExplosion.x      = spaceShip.x - SpaceFXView.SpaceShipExplosion.FRAME_WIDTH;
-                    spaceShipExplosion.y      = spaceShip.y - SpaceFXView.SpaceShipExplosion.FRAME_HEIGHT;
-                    if (spaceShip.shield) {
-                        asteroidExplosions.add(new SpaceFXView.AsteroidExplosion(asteroid.cX - SpaceFXView.AsteroidExplosion.FRAME_CENTER * asteroid.scale, asteroid.cY - SpaceFXView.AsteroidExplosion.FRAME_CENTER * asteroid.scale, asteroid.vX, asteroid.vY, asteroid.scale));
-                    } else {
-                        hasBeenHit = true;
-                        noOfLifes--;
-                        if (0 == noOfLifes) {
-                            gameOver();
-                        }
-                    }
-                    asteroid.respawn();
-                }
-            }
         }
 
+        metrics.mark(FrameMetrics.Phase.ASTEROIDS);
+
         // Draw Enemies
-        for (int i = 0 ; i < NO_OF_ENEMIES ; i++) {
-            SpaceFXView.Enemy enemy = enemies[i];
-            enemy.update();
+        Snapshot.Sprites enemies = snapshot.enemies;
+        for (int i = 0 ; i < enemies.count ; i++) {
+            double radius = World.ENEMY_SIZES[enemies.image[i]] * 0.5;
+            Image  sprite = SPRITE_CACHE ? spriteCache.get(enemySprites[enemies.image[i]], enemies.rot[i], 1) : null;
+            if (null != sprite) {
+                drawSprite(sprite, lerp(enemies.prevX[i], enemies.x[i], alpha), lerp(enemies.prevY[i], enemies.y[i], alpha));
+                continue;
+            }
+            markDirty(lerp(enemies.prevX[i], enemies.x[i], alpha), lerp(enemies.prevY[i], enemies.y[i], alpha), radius * 2 * HALF_DIAGONAL);
             ctx.save();
-            ctx.translate(enemy.x - enemy.radius, enemy.y - enemy.radius);
+            ctx.translate(lerp(enemies.prevX[i], enemies.x[i], alpha) - radius, lerp(enemies.prevY[i], enemies.y[i], alpha) - radius);
             ctx.save();
-            ctx.translate(enemy.radius, enemy.radius);
-            ctx.rotate(enemy.rot);
-            ctx.translate(-enemy.radius, -enemy.radius);
-            ctx.drawImage(enemy.image, 0, 0);
+            ctx.translate(radius, radius);
+            ctx.rotate(enemies.rot[i]);
+            ctx.translate(-radius, -radius);
+            drawRegion(enemyRegions[enemies.image[i]], 0, 0);
             ctx.restore();
             ctx.restore();
-            // Fire if spaceship is below enemy
-            if (enemy.y < spaceShip.y) {
-                if (enemy.x > spaceShip.x - ENEMY_FIRE_SENSITIVITY && enemy.x < spaceShip.x + ENEMY_FIRE_SENSITIVITY) {
-                    if (enemy.y - enemy.lastShotY > 15) {
-                        spawnEnemyTorpedo(enemy.x, enemy.y, enemy.vX, enemy.vY);
-                        enemy.lastShotY = enemy.y;
-                    }
-                }
-            }
-
-            // Check for torpedo hits
-            for (SpaceFXView.Torpedo torpedo : torpedos) {
-                if (isHitCircleCircle(torpedo.x, torpedo.y, torpedo.radius, enemy.x, enemy.y, enemy.radius)) {
-                    explosions.add(new SpaceFXView.Explosion(enemy.x - SpaceFXView.Explosion.FRAME_WIDTH * 0.25, enemy.y - SpaceFXView.Explosion.FRAME_HEIGHT * 0.25, enemy.vX, enemy.vY, 0.5));
-                    score += enemy.value;
-                    enemy.respawn();
-                    torpedosToRemove.add(torpedo);
-                }
-            }
-
-            // Check for rocket hits
-            for (SpaceFXView.Rocket rocket : rockets) {
-                if (isHitCircleCircle(rocket.x, rocket.y, rocket.radius, enemy.x, enemy.y, enemy.radius)) {
-                    rocketExplosions.add(new SpaceFXView.RocketExplosion(enemy.x - SpaceFXView.RocketExplosion.FRAME_WIDTH * 0.25, enemy.y - SpaceFXView.RocketExplosion.FRAME_HEIGHT * 0.25, enemy.vX, enemy.vY, 0.5));
-                    score += enemy.value;
-                    enemy.respawn();
-                    rocketsToRemove.add(rocket);
-                }
-            }
-
-            // Check for space ship hit
-            if (!hasBeenHit) {
-                boolean hit;
-                if (spaceShip.shield) {
-                    hit = isHitCircleCircle(spaceShip.x, spaceShip.y, deflectorShieldRadius, enemy.x, enemy.y, enemy.radius);
-                } else {
-                    hit = isHitCircleCircle(spaceShip.x, spaceShip.y, spaceShip.radius, enemy.x, enemy.y, enemy.radius);
-                }
-                if (hit) {
-                    if (spaceShip.shield) {
-                        explosions.add(new SpaceFXView.Explosion(enemy.x - SpaceFXView.Explosion.FRAME_WIDTH * 0.125, enemy.y - SpaceFXView.Explosion.FRAME_HEIGHT * 0.125, enemy.vX, enemy.vY, 0.5));
-                    } else {
-                        spaceShipExplosion.countX = 0;
-                        spaceShipExplosion.countY = 0;
-                        spaceShipExplosion.x      = spaceShip.x - SpaceFXView.SpaceShipExplosion.FRAME_WIDTH;
-                        spaceShipExplosion.y      = spaceShip.y - SpaceFXView.SpaceShipExplosion.FRAME_HEIGHT;
-                        hasBeenHit = true;
-                        noOfLifes--;
-                        if (0 == noOfLifes) {
-                            gameOver();
-                        }
-                    }
-                    enemy.respawn();
-                }
-            }
         }
 
+        metrics.mark(FrameMetrics.Phase.ENEMIES);
+
         // Draw EnemyBoss
-        for (SpaceFXView.EnemyBoss enemyBoss : enemyBosses) {
-            enemyBoss.update();
+        Snapshot.Sprites enemyBosses = snapshot.enemyBosses;
+        double           bossRadius  = World.ENEMY_BOSS_SIZE * 0.5;
+        for (int i = 0 ; i < enemyBosses.count ; i++) {
+            markDirty(lerp(enemyBosses.prevX[i], enemyBosses.x[i], alpha), lerp(enemyBosses.prevY[i], enemyBosses.y[i], alpha), bossRadius * 2 * HALF_DIAGONAL);
             ctx.save();
-            ctx.translate(enemyBoss.x - enemyBoss.radius, enemyBoss.y - enemyBoss.radius);
+            ctx.translate(lerp(enemyBosses.prevX[i], enemyBosses.x[i], alpha) - bossRadius, lerp(enemyBosses.prevY[i], enemyBosses.y[i], alpha) - bossRadius);
             ctx.save();
-            ctx.translate(enemyBoss.radius, enemyBoss.radius);
-            ctx.rotate(enemyBoss.rot);
-            ctx.translate(-enemyBoss.radius, -enemyBoss.radius);
-            ctx.drawImage(enemyBoss.image, 0, 0);
+            ctx.translate(bossRadius, bossRadius);
+            ctx.rotate(enemyBosses.rot[i]);
+            ctx.translate(-bossRadius, -bossRadius);
+            drawRegion(enemyBossRegions[Math.max(0, Math.min(enemyBosses.image[i], enemyBossRegions.length) - 1)], 0, 0);
             ctx.restore();
             ctx.restore();
-            // Fire if spaceship is below enemy
-            if (enemyBoss.x > spaceShip.x - ENEMY_FIRE_SENSITIVITY && enemyBoss.x < spaceShip.x + ENEMY_FIRE_SENSITIVITY) {
-                if (enemyBoss.y - enemyBoss.lastShotY > 15) {
-                    spawnEnemyBossTorpedo(enemyBoss.x, enemyBoss.y, enemyBoss.vX, enemyBoss.vY);
-                    enemyBoss.lastShotY = enemyBoss.y;
-                }
-            }
-
-            // Check for torpedo hits with enemy boss
-            for (SpaceFXView.Torpedo torpedo : torpedos) {
-                if (isHitCircleCircle(torpedo.x, torpedo.y, torpedo.radius, enemyBoss.x, enemyBoss.y, enemyBoss.radius)) {
-                    enemyBoss.hits--;
-                    if (enemyBoss.hits == 0) {
-                        enemyBossExplosions.add(new SpaceFXView.EnemyBossExplosion(enemyBoss.x - SpaceFXView.EnemyBossExplosion.FRAME_WIDTH * 0.25, enemyBoss.y - SpaceFXView.EnemyBossExplosion.FRAME_HEIGHT * 0.25, enemyBoss.vX, enemyBoss.vY, 0.5));
-                        score += enemyBoss.value;
-                        enemyBossesToRemove.add(enemyBoss);
-                        torpedosToRemove.add(torpedo);
-                    } else {
-                        enemyBossHits.add(new SpaceFXView.EnemyBossHit(torpedo.x - SpaceFXView.Hit.FRAME_CENTER, torpedo.y - SpaceFXView.Hit.FRAME_HEIGHT, enemyBoss.vX, enemyBoss.vY));
-                        torpedosToRemove.add(torpedo);
-                    }
-                }
-            }
-
-            // Check for rocket hits with enemy boss
-            for (SpaceFXView.Rocket rocket : rockets) {
-                if (isHitCircleCircle(rocket.x, rocket.y, rocket.radius, enemyBoss.x, enemyBoss.y, enemyBoss.radius)) {
-                    enemyBossExplosions.add(new SpaceFXView.EnemyBossExplosion(enemyBoss.x - SpaceFXView.EnemyBossExplosion.FRAME_WIDTH * 0.25, enemyBoss.y - SpaceFXView.EnemyBossExplosion.FRAME_HEIGHT * 0.25, enemyBoss.vX, enemyBoss.vY, 0.5));
-                    score += enemyBoss.value;
-                    enemyBossesToRemove.add(enemyBoss);
-                    rocketsToRemove.add(rocket);
-                }
-            }
-
-
-            // Check for space ship hit with enemy boss
-            if (!hasBeenHit) {
-                boolean hit;
-                if (spaceShip.shield) {
-                    hit = isHitCircleCircle(spaceShip.x, spaceShip.y, deflectorShieldRadius, enemyBoss.x, enemyBoss.y, enemyBoss.radius);
-                } else {
-                    hit = isHitCircleCircle(spaceShip.x, spaceShip.y, spaceShip.radius, enemyBoss.x, enemyBoss.y, enemyBoss.radius);
-                }
-                if (hit) {
-                    if (spaceShip.shield) {
-                        explosions.add(new SpaceFXView.Explosion(enemyBoss.x - SpaceFXView.Explosion.FRAME_WIDTH * 0.125, enemyBoss.y - SpaceFXView.Explosion.FRAME_HEIGHT * 0.125, enemyBoss.vX, enemyBoss.vY, 0.5));
-                    } else {
-                        spaceShipExplosion.countX = 0;
-                        spaceShipExplosion.countY = 0;
-                        spaceShipExplosion.x = spaceShip.x - SpaceFXView.SpaceShipExplosion.FRAME_WIDTH;
-                        spaceShipExplosion.y = spaceShip.y - SpaceFXView.SpaceShipExplosion.FRAME_HEIGHT;
-                        hasBeenHit = true;
-                        noOfLifes--;
-                        if (0 == noOfLifes) {
-                            gameOver();
-                        }
-                    }
-                    enemyBossesToRemove.add(enemyBoss);
-                }
-            }
         }
-        enemyBosses.removeAll(enemyBossesToRemove);
 
         // Draw Crystal
-        for (SpaceFXView.Crystal crystal : crystals) {
-            crystal.update();
+        Snapshot.Sprites crystals         = snapshot.crystals;
+        double           crystalImgCenter = World.CRYSTAL_SIZE * 0.5;
+        for (int i = 0 ; i < crystals.count ; i++) {
+            Image sprite = SPRITE_CACHE ? spriteCache.get(crystalSprite, crystals.rot[i], 1) : null;
+            if (null != sprite) {
+                drawSprite(sprite, lerp(crystals.prevX[i], crystals.x[i], alpha) + crystalImgCenter, lerp(crystals.prevY[i], crystals.y[i], alpha) + crystalImgCenter);
+                continue;
+            }
+            markDirty(lerp(crystals.prevX[i], crystals.x[i], alpha) + crystalImgCenter, lerp(crystals.prevY[i], crystals.y[i], alpha) + crystalImgCenter, crystalImgCenter * 2 * HALF_DIAGONAL);
             ctx.save();
-            ctx.translate(crystal.cX, crystal.cY);
-            ctx.rotate(crystal.rot);
-            ctx.translate(-crystal.imgCenterX, -crystal.imgCenterY);
-            ctx.drawImage(crystal.image, 0, 0);
+            ctx.translate(lerp(crystals.prevX[i], crystals.x[i], alpha) + crystalImgCenter, lerp(crystals.prevY[i], crystals.y[i], alpha) + crystalImgCenter);
+            ctx.rotate(crystals.rot[i]);
+            ctx.translate(-crystalImgCenter, -crystalImgCenter);
+            drawRegion(crystalRegion, 0, 0);
             ctx.restore();
-
-            // Check for space ship contact
-            boolean hit;
-            if (spaceShip.shield) {
-                hit = isHitCircleCircle(spaceShip.x, spaceShip.y, deflectorShieldRadius, crystal.cX, crystal.cY, crystal.radius);
-            } else {
-                hit = isHitCircleCircle(spaceShip.x, spaceShip.y, spaceShip.radius, crystal.cX, crystal.cY, crystal.radius);
-            }
-            if (hit) {
-                if (noOfShields <= SHIELDS - 1) { noOfShields++; }
-                crystalExplosions.add(new SpaceFXView.CrystalExplosion(crystal.cX - SpaceFXView.CrystalExplosion.FRAME_CENTER, crystal.cY - SpaceFXView.CrystalExplosion.FRAME_CENTER, crystal.vX, crystal.vY, 1.0));
-                crystalsToRemove.add(crystal);
-            }
         }
-        crystals.removeAll(crystalsToRemove);
+
+        metrics.mark(FrameMetrics.Phase.BOSSES);
 
         // Draw Torpedos
-        for (SpaceFXView.Torpedo torpedo : torpedos) {
-            torpedo.update();
-            ctx.drawImage(torpedo.image, torpedo.x - torpedo.radius, torpedo.y - torpedo.radius);
-        }
-        torpedos.removeAll(torpedosToRemove);
+        double torpedoRadius = Math.max(World.TORPEDO_WIDTH, World.TORPEDO_HEIGHT) * 0.5;
+        drawProjectiles(torpedoRegion, snapshot.torpedos, -torpedoRadius, -torpedoRadius, alpha);
 
         // Draw Rockets
-        for (SpaceFXView.Rocket rocket : rockets) {
-            rocket.update();
-            ctx.drawImage(rocket.image, rocket.x - rocket.halfWidth, rocket.y - rocket.halfHeight);
-        }
-        rockets.removeAll(rocketsToRemove);
+        drawProjectiles(rocketRegion, snapshot.rockets, -World.ROCKET_WIDTH * 0.5, -World.ROCKET_HEIGHT * 0.5, alpha);
 
         // Draw EnemyTorpedos
-        for (SpaceFXView.EnemyTorpedo enemyTorpedo : enemyTorpedos) {
-            enemyTorpedo.update();
-            ctx.drawImage(enemyTorpedo.image, enemyTorpedo.x, enemyTorpedo.y);
-        }
-        enemyTorpedos.removeAll(enemyTorpedosToRemove);
+        drawProjectiles(enemyTorpedoRegion, snapshot.enemyTorpedos, 0, 0, alpha);
 
         // Draw EnemyBossTorpedos
-        for (SpaceFXView.EnemyBossTorpedo enemyBossTorpedo : enemyBossTorpedos) {
-            enemyBossTorpedo.update();
-            ctx.drawImage(enemyBossTorpedo.image, enemyBossTorpedo.x, enemyBossTorpedo.y);
-        }
-        enemyBossTorpedos.removeAll(enemyBossTorpedosToRemove);
+        drawProjectiles(enemyBossTorpedoRegion, snapshot.enemyBossTorpedos, 0, 0, alpha);
 
-        // Draw Explosions
-        for (SpaceFXView.Explosion explosion : explosions) {
-            explosion.update();
-            ctx.drawImage(explosionImg, explosion.countX * SpaceFXView.Explosion.FRAME_WIDTH, explosion.countY * SpaceFXView.Explosion.FRAME_HEIGHT, SpaceFXView.Explosion.FRAME_WIDTH, SpaceFXView.Explosion.FRAME_HEIGHT, explosion.x, explosion.y, SpaceFXView.Explosion.FRAME_WIDTH * explosion.scale, SpaceFXView.Explosion.FRAME_HEIGHT * explosion.scale);
-        }
-        explosions.removeAll(explosionsToRemove);
+        metrics.mark(FrameMetrics.Phase.PROJECTILES);
 
-        // Draw AsteroidExplosions
-        for (SpaceFXView.AsteroidExplosion asteroidExplosion : asteroidExplosions) {
-            asteroidExplosion.update();
-            ctx.drawImage(asteroidExplosionImg, asteroidExplosion.countX * SpaceFXView.AsteroidExplosion.FRAME_WIDTH, asteroidExplosion.countY * SpaceFXView.AsteroidExplosion.FRAME_HEIGHT, SpaceFXView.AsteroidExplosion.FRAME_WIDTH, SpaceFXView.AsteroidExplosion.FRAME_HEIGHT, asteroidExplosion.x, asteroidExplosion.y, SpaceFXView.AsteroidExplosion.FRAME_WIDTH * asteroidExplosion.scale, SpaceFXView.AsteroidExplosion.FRAME_HEIGHT * asteroidExplosion.scale);
-        }
-        asteroidExplosions.removeAll(asteroidExplosionsToRemove);
+        // Draw Explosions and Hits
+        drawAnimations(snapshot.animations, alpha);
 
-        // Draw RocketExplosions
-        for (SpaceFXView.RocketExplosion rocketExplosion : rocketExplosions) {
-            rocketExplosion.update();
-            ctx.drawImage(rocketExplosionImg, rocketExplosion.countX * SpaceFXView.RocketExplosion.FRAME_WIDTH, rocketExplosion.countY * SpaceFXView.RocketExplosion.FRAME_HEIGHT, SpaceFXView.RocketExplosion.FRAME_WIDTH, SpaceFXView.RocketExplosion.FRAME_HEIGHT, rocketExplosion.x, rocketExplosion.y, SpaceFXView.RocketExplosion.FRAME_WIDTH * rocketExplosion.scale, SpaceFXView.RocketExplosion.FRAME_HEIGHT * rocketExplosion.scale);
-        }
-        rocketExplosions.removeAll(rocketExplosionsToRemove);
-
-        // Draw EnemyBpssExplosions
-        for (SpaceFXView.EnemyBossExplosion enemyBossExplosion : enemyBossExplosions) {
-            enemyBossExplosion.update();
-            ctx.drawImage(enemyBossExplosionImg, enemyBossExplosion.countX * SpaceFXView.EnemyBossExplosion.FRAME_WIDTH, enemyBossExplosion.countY * SpaceFXView.EnemyBossExplosion.FRAME_HEIGHT, SpaceFXView.EnemyBossExplosion.FRAME_WIDTH, SpaceFXView.EnemyBossExplosion.FRAME_HEIGHT, enemyBossExplosion.x, enemyBossExplosion.y, SpaceFXView.EnemyBossExplosion.FRAME_WIDTH * enemyBossExplosion.scale, SpaceFXView.EnemyBossExplosion.FRAME_HEIGHT * enemyBossExplosion.scale);
-        }
-        enemyBossExplosions.removeAll(enemyBossExplosionsToRemove);
-
-        // Draw CrystalExplosions
-        for (SpaceFXView.CrystalExplosion crystalExplosion : crystalExplosions) {
-            crystalExplosion.update();
-            ctx.drawImage(crystalExplosionImg, crystalExplosion.countX * SpaceFXView.CrystalExplosion.FRAME_WIDTH, crystalExplosion.countY * SpaceFXView.CrystalExplosion.FRAME_HEIGHT, SpaceFXView.CrystalExplosion.FRAME_WIDTH, SpaceFXView.CrystalExplosion.FRAME_HEIGHT, crystalExplosion.x, crystalExplosion.y, SpaceFXView.CrystalExplosion.FRAME_WIDTH * crystalExplosion.scale, SpaceFXView.CrystalExplosion.FRAME_HEIGHT * crystalExplosion.scale);
-        }
-        crystalExplosions.removeAll(crystalExplosionsToRemove);
-
-        // Draw Hits
-        for (SpaceFXView.Hit hit : hits) {
-            hit.update();
-            ctx.drawImage(hitImg, hit.countX * SpaceFXView.Hit.FRAME_WIDTH, hit.countY * SpaceFXView.Hit.FRAME_HEIGHT, SpaceFXView.Hit.FRAME_WIDTH, SpaceFXView.Hit.FRAME_HEIGHT, hit.x, hit.y, SpaceFXView.Hit.FRAME_WIDTH, SpaceFXView.Hit.FRAME_HEIGHT);
-        }
-        hits.removeAll(hitsToRemove);
-
-        // Draw EnemyBoss Hits
-        for (SpaceFXView.EnemyBossHit hit : enemyBossHits) {
-            hit.update();
-            ctx.drawImage(enemyBossHitImg, hit.countX * SpaceFXView.Hit.FRAME_WIDTH, hit.countY * SpaceFXView.Hit.FRAME_HEIGHT, SpaceFXView.Hit.FRAME_WIDTH, SpaceFXView.Hit.FRAME_HEIGHT, hit.x, hit.y, SpaceFXView.Hit.FRAME_WIDTH, SpaceFXView.Hit.FRAME_HEIGHT);
-        }
-        enemyBossHits.removeAll(enemyBossHitsToRemove);
+        metrics.mark(FrameMetrics.Phase.EXPLOSIONS);
 
         // Draw Spaceship, score, lifes and shields
+        int noOfLifes = snapshot.noOfLifes;
         if (noOfLifes > 0) {
             // Draw Spaceship or it's explosion
-            if (hasBeenHit) {
-                spaceShipExplosion.update();
-                ctx.drawImage(spaceShipExplosionImg, spaceShipExplosion.countX * spaceShipExplosion.FRAME_WIDTH, spaceShipExplosion.countY * spaceShipExplosion.FRAME_HEIGHT,
-                              spaceShipExplosion.FRAME_WIDTH, spaceShipExplosion.FRAME_HEIGHT, spaceShip.x - spaceShipExplosion.FRAME_CENTER, spaceShip.y - spaceShipExplosion.FRAME_CENTER,
-                              spaceShipExplosion.FRAME_WIDTH, spaceShipExplosion.FRAME_HEIGHT);
+            if (snapshot.hasBeenHit) {
+                AnimationSheet sheet = World.SPACESHIP_EXPLOSION;
+                drawFrame(sheet, snapshot.spaceShipExplosionFrame, snapshot.spaceShipX - sheet.frameCenter, snapshot.spaceShipY - sheet.frameCenter, 1);
             } else {
                 // Draw space ship
-                spaceShip.update();
-
-                ctx.drawImage((0 == spaceShip.vX && 0 == spaceShip.vY) ? spaceShip.image : spaceShip.imageThrust, spaceShip.x - spaceShip.radius, spaceShip.y - spaceShip.radius);
-
-                if (spaceShip.shield) {
-                    long delta = System.currentTimeMillis() - lastShieldActivated;
-                    if (delta > DEFLECTOR_SHIELD_TIME) {
-                        spaceShip.shield = false;
-                        noOfShields--;
-                    } else {
-                        ctx.setStroke(SCORE_COLOR);
-                        ctx.setFill(SCORE_COLOR);
-                        ctx.strokeRect(SHIELD_INDICATOR_X, SHIELD_INDICATOR_Y, SHIELD_INDICATOR_WIDTH, SHIELD_INDICATOR_HEIGHT);
-                        ctx.fillRect(SHIELD_INDICATOR_X, SHIELD_INDICATOR_Y, SHIELD_INDICATOR_WIDTH - SHIELD_INDICATOR_WIDTH * delta / DEFLECTOR_SHIELD_TIME, SHIELD_INDICATOR_HEIGHT);
-                        ctx.setGlobalAlpha(RND.nextDouble() * 0.5 + 0.1);
-                        ctx.drawImage(deflectorShieldImg, spaceShip.x - deflectorShieldRadius, spaceShip.y - deflectorShieldRadius);
-                        ctx.setGlobalAlpha(1);
-                    }
+                double spaceShipX      = lerp(snapshot.spaceShipPrevX, snapshot.spaceShipX, alpha);
+                double spaceShipY      = lerp(snapshot.spaceShipPrevY, snapshot.spaceShipY, alpha);
+                double spaceShipRadius = World.SPACESHIP_SIZE * 0.5;
+                markDirty(spaceShipX, spaceShipY, spaceShipRadius);
+                drawRegion(snapshot.spaceShipThrust ? spaceshipThrustRegion : spaceshipRegion, spaceShipX - spaceShipRadius, spaceShipY - spaceShipRadius);
+
+                if (snapshot.shield) {
+                    ctx.setStroke(SCORE_COLOR);
+                    ctx.setFill(SCORE_COLOR);
+                    ctx.strokeRect(SHIELD_INDICATOR_X, SHIELD_INDICATOR_Y, SHIELD_INDICATOR_WIDTH, SHIELD_INDICATOR_HEIGHT);
+                    ctx.fillRect(SHIELD_INDICATOR_X, SHIELD_INDICATOR_Y, SHIELD_INDICATOR_WIDTH * snapshot.shieldTimeLeft, SHIELD_INDICATOR_HEIGHT);
+                    markDirty(SHIELD_INDICATOR_X, SHIELD_INDICATOR_Y, SHIELD_INDICATOR_WIDTH, SHIELD_INDICATOR_HEIGHT);
+                    markDirty(spaceShipX, spaceShipY, deflectorShieldRadius);
+                    ctx.setGlobalAlpha(effectsRandom.nextDouble() * 0.5 + 0.1);
+                    drawRegion(deflectorShieldRegion, spaceShipX - deflectorShieldRadius, spaceShipY - deflectorShieldRadius);
+                    ctx.setGlobalAlpha(1);
                 }
             }
 
+        }
+
+        drawHud(snapshot);
+        metrics.mark(FrameMetrics.Phase.HUD);
+    }
+
+    /**
+     * Draws score, lifes and shields on their own layer, which is only redrawn when one of them changed
+     */
+    private void drawHud(final Snapshot snapshot) {
+        int noOfLifes   = snapshot.noOfLifes;
+        int noOfShields = snapshot.noOfShields;
+        if (snapshot.score == hudScore && noOfLifes == hudLifes && noOfShields == hudShields) { return; }
+        hudScore   = snapshot.score;
+        hudLifes   = noOfLifes;
+        hudShields = noOfShields;
+
+        hudCtx.clearRect(0, 0, WIDTH, HEIGHT);
+        if (noOfLifes > 0) {
             // Draw score
-            ctx.setFill(SCORE_COLOR);
-            ctx.setFont(scoreFont);
-            ctx.fillText(Long.toString(score), scorePosX, scorePosY);
+            scoreGlyphs.drawNumber(hudCtx, snapshot.score, scorePosX, scorePosY);
 
             // Draw lifes
             for (int i = 0 ; i < noOfLifes ; i++) {
-                ctx.drawImage(miniSpaceshipImg, i * miniSpaceshipImg.getWidth() + 10, 20);
+                drawRegion(hudCtx, miniSpaceshipRegion, i * miniSpaceshipRegion.width + 10, 20);
             }
 
             // Draw shields
             for (int i = 0 ; i < noOfShields ; i++) {
-                ctx.drawImage(miniDeflectorShieldImg, WIDTH - i * (miniDeflectorShieldImg.getWidth() + 5), 20);
+                drawRegion(hudCtx, miniDeflectorShieldRegion, WIDTH - i * (miniDeflectorShieldRegion.width + 5), 20);
             }
         }
     }
 
 
-    // Spawn different objects
-    private void spawnTorpedo(final double x, final double y) {
-        torpedos.add(new SpaceFXView.Torpedo(torpedoImg, x, y));
+    private void drawSprite(final Image sprite, final double centerX, final double centerY) {
+        double x = centerX - sprite.getWidth() * 0.5;
+        double y = centerY - sprite.getHeight() * 0.5;
+        markDirty(x, y, sprite.getWidth(), sprite.getHeight());
+        ctx.drawImage(sprite, x, y);
     }
 
-    private void spawnRocket(final double x, final double y) {
-        rockets.add(new SpaceFXView.Rocket(rocketImg, x, y));
+    private void drawRegion(final TextureAtlas.Region region, final double x, final double y) { drawRegion(ctx, region, x, y); }
+
+    private static void drawRegion(final GraphicsContext context, final TextureAtlas.Region region, final double x, final double y) {
+        context.drawImage(region.image, region.x, region.y, region.width, region.height, x, y, region.width, region.height);
     }
 
-    private void spawnEnemyTorpedo(final double x, final double y, final double vX, final double vY) {
-        double vFactor = ENEMY_TORPEDO_SPEED / vY; // make sure the speed is always the defined one
-        enemyTorpedos.add(new SpaceFXView.EnemyTorpedo(enemyTorpedoImg, x, y, vFactor * vX, vFactor * vY));
+    private void drawProjectiles(final TextureAtlas.Region region, final Snapshot.Sprites projectiles, final double offsetX, final double offsetY, final double alpha) {
+        for (int i = 0 ; i < projectiles.count ; i++) {
+            double x = lerp(projectiles.prevX[i], projectiles.x[i], alpha) + offsetX;
+            double y = lerp(projectiles.prevY[i], projectiles.y[i], alpha) + offsetY;
+            markDirty(x, y, region.width, region.height);
+            drawRegion(region, x, y);
+        }
     }
 
-    private void spawnEnemyBoss() {
-        enemyBosses.add(new SpaceFXView.EnemyBoss(enemyBossImg4));
+    private void drawAnimations(final Snapshot.Sprites animations, final double alpha) {
+        for (int i = 0 ; i < animations.count ; i++) {
+            drawFrame(World.ANIMATION_SHEETS[animations.image[i]], animations.frame[i], lerp(animations.prevX[i], animations.x[i], alpha), lerp(animations.prevY[i], animations.y[i], alpha), animations.scale[i]);
+        }
     }
 
-    private void spawnCrystal() {
-        crystals.add(new SpaceFXView.Crystal(crystalImg));
+    /**
+     * Draws one frame of a sprite sheet from the texture atlas using the precomputed source offsets of the sheet
+     */
+    private void drawFrame(final AnimationSheet sheet, final int frame, final double x, final double y, final double scale) {
+        TextureAtlas.Region region = animationRegions[sheet.id];
+        if (null == region) { return; } // The sheets are loaded after the sprites
+        double              width  = sheet.frameWidth * scale;
+        double              height = sheet.frameHeight * scale;
+        markDirty(x, y, width, height);
+        ctx.drawImage(region.image, region.x + sheet.srcX[frame], region.y + sheet.srcY[frame], sheet.frameWidth, sheet.frameHeight, x, y, width, height);
     }
 
-    private void spawnEnemyBossTorpedo(final double x, final double y, final double vX, final double vY) {
-        double vFactor = ENEMY_BOSS_TORPEDO_SPEED / vY; // make sure the speed is always the defined one
-        enemyBossTorpedos.add(new SpaceFXView.EnemyBossTorpedo(enemyBossTorpedoImg, x, y, vFactor * vX, vFactor * vY));
+    /**
+     * Remembers a drawn rectangle of the sprite layer in dirty rectangle mode
+     */
+    private void markDirty(final double x, final double y, final double width, final double height) {
+        if (DIRTY_RECTS) { dirtyRegions.add(x, y, width, height); }
     }
 
+    private void markDirty(final double centerX, final double centerY, final double radius) { markDirty(centerX - radius, centerY - radius, radius * 2, radius * 2); }
 
-    // Hit test
-    private boolean isHitCircleCircle(final double c1X, final double c1Y, final double c1R, final double c2X, final double c2Y, final double c2R) {
-        double distX    = c1X - c2X;
-        double distY    = c1Y - c2Y;
-        double distance = Math.sqrt((distX * distX) + (distY * distY));
-        return (distance <= c1R+c2R);
-    }
+    private static double lerp(final double from, final double to, final double alpha) { return from + (to - from) * alpha; }
 
+    /**
+     * Draws p50 and p99 of all frame metrics in milliseconds (allocations in kB)
+     */
+    private void drawMetrics() {
+        ctx.save();
+        ctx.setFont(metricsFont);
+        ctx.setTextAlign(TextAlignment.LEFT);
+        ctx.setTextBaseline(VPos.TOP);
+        ctx.setFill(Color.rgb(0, 0, 0, 0.6));
+        List<Histogram> histograms = metrics.getHistograms();
+        double          lineHeight = metricsFont.getSize() * 1.25;
+        int             noOfLines  = histograms.size() + (SPRITE_CACHE ? 2 : 1);
+        ctx.fillRect(0, HEIGHT - noOfLines * lineHeight - 10, 240 * SCALING_FACTOR, noOfLines * lineHeight + 10);
+        markDirty(0, HEIGHT - noOfLines * lineHeight - 10, 240 * SCALING_FACTOR, noOfLines * lineHeight + 10);
+        ctx.setFill(Color.LIME);
+        double y = HEIGHT - noOfLines * lineHeight - 5;
+        ctx.fillText(String.format(Locale.ROOT, "%-11s %8s %8s", "", "p50", "p99"), 5, y);
+        for (Histogram histogram : histograms) {
+            y += lineHeight;
+            double divisor = "ns".equals(histogram.getUnit()) ? 1_000_000.0 : "bytes".equals(histogram.getUnit()) ? 1024.0 : 1.0;
+            ctx.fillText(String.format(Locale.ROOT, "%-11s %8.2f %8.2f", histogram.getName(), histogram.getValueAtPercentile(50) / divisor, histogram.getValueAtPercentile(99) / divisor), 5, y);
+        }
+        if (SPRITE_CACHE) {
+            y += lineHeight;
+            ctx.fillText(String.format(Locale.ROOT, "%-11s %7.1f%% %6.1fMB", "sprites", spriteCache.getHitRatio() * 100, spriteCache.getBytes() / (1024.0 * 1024.0)), 5, y);
+        }
+        ctx.restore();
+    }
 
     // Game Over
     private void gameOver() {
         timer.stop();
+        simulation.stop();
         running        = false;
         gameOverScreen = true;
 
+        final long score = world.getScore();
+        if (null != recorder) { recorder.endGame(score); }
         PauseTransition pauseBeforeGameOverScreen = new PauseTransition(Duration.millis(1000));
         pauseBeforeGameOverScreen.setOnFinished(e -> {
             checkForHighScore(new SpaceFXView.Player("", score));
+            backgroundCtx.clearRect(0, 0, WIDTH, HEIGHT);
+            starField.clear();
+            hudCtx.clearRect(0, 0, WIDTH, HEIGHT);
             ctx.clearRect(0, 0, WIDTH, HEIGHT);
             ctx.drawImage(gameOverImg, 0, 0, WIDTH, HEIGHT);
-            ctx.setFill(SCORE_COLOR);
-            ctx.setFont(scoreFont);
-            ctx.fillText(Long.toString(score), scorePosX, HEIGHT * 0.25);
+            scoreGlyphs.drawNumber(ctx, score, scorePosX, HEIGHT * 0.25);
         });
         pauseBeforeGameOverScreen.play();
 
@@ -859,20 +886,7 @@ public class SpaceFXView extends BorderPane {
             ctx.drawImage(startImg, 0, 0);
 
             gameOverScreen = false;
-            explosions.clear();
-            torpedos.clear();
-            enemyTorpedos.clear();
-            for (SpaceFXView.Asteroid asteroid : asteroids) { asteroid.respawn(); }
-            for (SpaceFXView.Enemy enemy : enemies) { enemy.respawn(); }
-            initEnemies();
-            spaceShip.x  = WIDTH * 0.5;
-            spaceShip.y  = HEIGHT - 2 * spaceShip.image.getHeight();
-            spaceShip.vX = 0;
-            spaceShip.vY = 0;
-            hasBeenHit   = false;
-            noOfLifes    = LIFES;
-            noOfShields  = SHIELDS;
-            score        = 0;
+            world.reset();
         });
         pauseInGameOverScreen.play();
     }
@@ -903,952 +917,21 @@ public class SpaceFXView extends BorderPane {
     // Font definition
     private static Font spaceBoy(final double size) { return new Font(SPACE_BOY, size); }
 
-
-    // ******************** Space Object Classes ******************************
-    private class Star {
-        private final Random  rnd          = new Random();
-        private final double  xVariation   = 0;
-        private final double  minSpeedY    = 4;
-        private       double  x;
-        private       double  y;
-        private       double  size;
-        private       double  vX;
-        private       double  vY;
-        private       double  vYVariation;
-
-
-        public Star() {
-            // Random size
-            size = rnd.nextInt(2) + 1;
-
-            // Position
-            x = (int)(rnd.nextDouble() * WIDTH);
-            y = -size;
-
-            // Random Speed
-            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
-
-            // Velocity
-            vX = (int) (Math.round((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X);
-            vY = (int) (Math.round(((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y);
-        }
-
-
-        private void respawn() {
-            x = (int) (RND.nextDouble() * WIDTH);
-            y = -size;
-        }
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            // Respawn star
-            if(y > HEIGHT + size) {
-                respawn();
-            }
-        }
-    }
-
-    private class Asteroid {
-        private static final int     MAX_VALUE      = 10;
-        private final        Random  rnd            = new Random();
-        private final        double  xVariation     = 2;
-        private final        double  minSpeedY      = 2;
-        private final        double  minRotationR   = 0.1;
-        private              Image   image;
-        private              double  x;
-        private              double  y;
-        private              double  width;
-        private              double  height;
-        private              double  size;
-        private              double  imgCenterX;
-        private              double  imgCenterY;
-        private              double  radius;
-        private              double  cX;
-        private              double  cY;
-        private              double  rot;
-        private              double  vX;
-        private              double  vY;
-        private              double  vR;
-        private              boolean rotateRight;
-        private              double  scale;
-        private              double  vYVariation;
-        private              int     value;
-        private              int     hits;
-
-
-        public Asteroid(final Image image) {
-            // Image
-            this.image = image;
-            init();
-        }
-
-
-        private void init() {
-            // Position
-            x   = rnd.nextDouble() * WIDTH;
-            y   = -image.getHeight();
-            rot = 0;
-
-            // Random Size
-            scale = (rnd.nextDouble() * 0.6) + 0.2;
-
-            // No of hits (0.2 - 0.8)
-            hits = (int) (scale * 5.0);
-
-            // Value
-            value = (int) (1 / scale * MAX_VALUE);
-
-            // Random Speed
-            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
-
-            width      = image.getWidth() * scale;
-            height     = image.getHeight() * scale;
-            size       = width > height ? width : height;
-            radius     = size * 0.5;
-            imgCenterX = image.getWidth() * 0.5;
-            imgCenterY = image.getHeight() * 0.5;
-
-            // Velocity
-            vX          = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
-            vY          = (((rnd.nextDouble() * 1.5) + minSpeedY * 1/scale) * vYVariation) * VELOCITY_FACTOR_Y;
-            vR          = ((rnd.nextDouble() * 0.5) + minRotationR) * VELOCITY_FACTOR_R;
-            rotateRight = rnd.nextBoolean();
-        }
-
-        private void respawn() {
-            this.image = asteroidImages[RND.nextInt(asteroidImages.length)];
-            init();
-        }
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            cX = x + imgCenterX;
-            cY = y + imgCenterY;
-
-            if (rotateRight) {
-                rot += vR;
-                if (rot > 360) { rot = 0; }
-            } else {
-                rot -= vR;
-                if (rot < 0) { rot = 360; }
-            }
-
-            // Respawn asteroid
-            if(x < -size || x - radius > WIDTH || y - height > HEIGHT) {
-                respawn();
-            }
-        }
+    /**
+     * Reads a duration in seconds from the given system property
+     */
+    private static long nanos(final String key, final long defaultNanos) {
+        final String value = System.getProperty(key);
+        return null == value ? defaultNanos : (long) (Double.parseDouble(value) * 1_000_000_000l);
     }
 
-    private class SpaceShip {
-        private final Image   image;
-        private final Image   imageThrust;
-        private       double  x;
-        private       double  y;
-        private       double  size;
-        private       double  radius;
-        private       double  width;
-        private       double  height;
-        private       double  vX;
-        private       double  vY;
-        private       boolean shield;
-
-
-        public SpaceShip(final Image image, final Image imageThrust) {
-            this.image       = image;
-            this.imageThrust = imageThrust;
-            this.x           = WIDTH * 0.5;
-            this.y           = HEIGHT - 2 * image.getHeight();
-            this.width       = image.getWidth();
-            this.height      = image.getHeight();
-            this.size        = width > height ? width : height;
-            this.radius      = size * 0.5;
-            this.vX          = 0;
-            this.vY          = 0;
-            this.shield      = false;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-            if (x + width * 0.5 > WIDTH) {
-                x = WIDTH - width * 0.5;
-            }
-            if (x - width * 0.5 < 0) {
-                x = width * 0.5;
-            }
-            if (y + height * 0.5 > HEIGHT) {
-                y = HEIGHT - height * 0.5;
-            }
-            if (y - height * 0.5< 0) {
-                y = height * 0.5;
-            }
-        }
-    }
-
-    private class Torpedo {
-        private final Image  image;
-        private       double x;
-        private       double y;
-        private       double width;
-        private       double height;
-        private       double size;
-        private       double radius;
-        private       double vX;
-        private       double vY;
-
-
-        public Torpedo(final Image image, final double x, final double y) {
-            this.image  = image;
-            this.x      = x;
-            this.y      = y - image.getHeight();
-            this.width  = image.getWidth();
-            this.height = image.getHeight();
-            this.size   = width > height ? width : height;
-            this.radius = size * 0.5;
-            this.vX     = 0;
-            this.vY     = TORPEDO_SPEED;
-        }
-
-
-        private void update() {
-            y -= vY;
-            if (y < -size) {
-                torpedosToRemove.add(SpaceFXView.Torpedo.this);
-            }
-        }
+    private static Path assetCacheDir() {
+        String cacheDir = System.getProperty("spacefx.cachedir", Paths.get(System.getProperty("user.home"), ".spacefx", "cache").toString());
+        return cacheDir.isEmpty() ? null : Paths.get(cacheDir);
     }
 
-    private class Rocket {
-        private final Image  image;
-        private       double x;
-        private       double y;
-        private       double width;
-        private       double height;
-        private       double halfWidth;
-        private       double halfHeight;
-        private       double size;
-        private       double radius;
-        private       double vX;
-        private       double vY;
-
-
-        public Rocket(final Image image, final double x, final double y) {
-            this.image      = image;
-            this.x          = x;
-            this.y          = y - image.getHeight();
-            this.width      = image.getWidth();
-            this.height     = image.getHeight();
-            this.halfWidth  = width * 0.5;
-            this.halfHeight = height * 0.5;
-            this.size       = width > height ? width : height;
-            this.radius     = size * 0.5;
-            this.vX         = 0;
-            this.vY         = ROCKET_SPEED;
-        }
-
-
-        private void update() {
-            y -= vY;
-            if (y < -size) {
-                rocketsToRemove.add(SpaceFXView.Rocket.this);
-            }
-        }
-    }
-
-    private class RocketExplosion {
-        private static final double FRAME_WIDTH  = 128 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 128 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 4;
-        private static final int    MAX_FRAME_Y  = 7;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              double scale;
-        private              int    countX;
-        private              int    countY;
-
-
-        public RocketExplosion(final double x, final double y, final double vX, final double vY, final double scale) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.scale  = scale;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    rocketExplosionsToRemove.add(SpaceFXView.RocketExplosion.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class AsteroidExplosion {
-        private static final double FRAME_WIDTH  = 256 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 256 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 8;
-        private static final int    MAX_FRAME_Y  = 7;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              double scale;
-        private              int    countX;
-        private              int    countY;
-
-
-        public AsteroidExplosion(final double x, final double y, final double vX, final double vY, final double scale) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.scale  = scale;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    asteroidExplosionsToRemove.add(SpaceFXView.AsteroidExplosion.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class Explosion {
-        private static final double FRAME_WIDTH  = 192 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 192 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 5;
-        private static final int    MAX_FRAME_Y  = 4;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              double scale;
-        private              int    countX;
-        private              int    countY;
-
-
-        public Explosion(final double x, final double y, final double vX, final double vY, final double scale) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.scale  = scale;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    explosionsToRemove.add(SpaceFXView.Explosion.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class CrystalExplosion {
-        private static final double FRAME_WIDTH  = 100 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 100 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 4;
-        private static final int    MAX_FRAME_Y  = 7;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              double scale;
-        private              int    countX;
-        private              int    countY;
-
-
-        public CrystalExplosion(final double x, final double y, final double vX, final double vY, final double scale) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.scale  = scale;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    crystalExplosionsToRemove.add(SpaceFXView.CrystalExplosion.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class SpaceShipExplosion {
-        private static final double FRAME_WIDTH  = 100 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 100 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 8;
-        private static final int    MAX_FRAME_Y  = 6;
-        private              double x;
-        private              double y;
-        private              int    countX;
-        private              int    countY;
-
-
-        public SpaceShipExplosion(final double x, final double y) {
-            this.x      = x;
-            this.y      = y;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countX = 0;
-                countY++;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-                if (countX == 0 && countY == 0) {
-                    hasBeenHit = false;
-                    spaceShip.x = WIDTH * 0.5;
-                    spaceShip.y = HEIGHT - 2 * spaceShip.height;
-                }
-            }
-        }
-    }
-
-    private class Hit {
-        private static final double FRAME_WIDTH  = 80 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 80 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 5;
-        private static final int    MAX_FRAME_Y  = 2;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              int    countX;
-        private              int    countY;
-
-
-        public Hit(final double x, final double y, final double vX, final double vY) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    hitsToRemove.add(SpaceFXView.Hit.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class EnemyBossHit {
-        private static final double FRAME_WIDTH  = 80 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 80 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 5;
-        private static final int    MAX_FRAME_Y  = 2;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              int    countX;
-        private              int    countY;
-
-
-        public EnemyBossHit(final double x, final double y, final double vX, final double vY) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    enemyBossHitsToRemove.add(SpaceFXView.EnemyBossHit.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class Enemy {
-        private static final int     MAX_VALUE  = 49;
-        private final        Random  rnd        = new Random();
-        private final        double  xVariation = 1;
-        private final        double  minSpeedY  = 3;
-        private              Image   image;
-        private              double  x;
-        private              double  y;
-        private              double  rot;
-        private              double  width;
-        private              double  height;
-        private              double  size;
-        private              double  radius;
-        private              double  vX;
-        private              double  vY;
-        private              double  vYVariation;
-        private              int     value;
-        private              double  lastShotY;
-
-
-        public Enemy(final Image image) {
-            // Image
-            this.image = image;
-            init();
-        }
-
-
-        private void init() {
-            // Position
-            x = rnd.nextDouble() * WIDTH;
-            y = -image.getHeight();
-
-            // Value
-            value = rnd.nextInt(MAX_VALUE) + 1;
-
-            // Random Speed
-            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
-
-            width  = image.getWidth();
-            height = image.getHeight();
-            size   = width > height ? width : height;
-            radius = size * 0.5;
-
-            // Velocity
-            if (x < FIRST_QUARTER_WIDTH) {
-                vX = (rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
-            } else if (x > LAST_QUARTER_WIDTH) {
-                vX = -(rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
-            } else {
-                vX = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
-            }
-            vY = (((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y;
-
-            // Rotation
-            rot = Math.toDegrees(Math.atan2(vY, vX)) - 90;
-
-            // Related to laser fire
-            lastShotY = 0;
-        }
-
-        private void respawn() {
-            image = enemyImages[RND.nextInt(enemyImages.length)];
-            init();
-        }
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            // Respawn Enemy
-            if (x < -size || x > WIDTH + size || y > HEIGHT + size) {
-                respawn();
-            }
-        }
-    }
-
-    private class EnemyBoss {
-        private static final int     MAX_VALUE  = 99;
-        private final        Random  rnd        = new Random();
-        private final        double  xVariation = 1;
-        private final        double  minSpeedY  = 3;
-        private              Image   image;
-        private              double  x;
-        private              double  y;
-        private              double  rot;
-        private              double  width;
-        private              double  height;
-        private              double  size;
-        private              double  radius;
-        private              double  vX;
-        private              double  vY;
-        private              double  vYVariation;
-        private              int     value;
-        private              double  lastShotY;
-        private              int     hits;
-
-
-        public EnemyBoss(final Image image) {
-            // Image
-            this.image = image;
-            init();
-        }
-
-
-        private void init() {
-            // Position
-            x = rnd.nextDouble() * WIDTH;
-            y = -image.getHeight();
-
-            // Value
-            value = rnd.nextInt(MAX_VALUE) + 1;
-
-            // Random Speed
-            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
-
-            width  = image.getWidth();
-            height = image.getHeight();
-            size   = width > height ? width : height;
-            radius = size * 0.5;
-
-            // Velocity
-            if (x < FIRST_QUARTER_WIDTH) {
-                vX = (rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
-            } else if (x > LAST_QUARTER_WIDTH) {
-                vX = -(rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
-            } else {
-                vX = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
-            }
-            vY = (((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y;
-
-            // Rotation
-            rot = Math.toDegrees(Math.atan2(vY, vX)) - 90;
-
-            // Related to laser fire
-            lastShotY = 0;
-
-            // No of hits
-            hits = 5;
-        }
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            switch(hits) {
-                case 5: image = enemyBossImg4; break;
-                case 4: image = enemyBossImg3; break;
-                case 3: image = enemyBossImg2; break;
-                case 2: image = enemyBossImg1; break;
-                case 1: image = enemyBossImg0; break;
-            }
-
-            // Respawn Enemy
-            if (x < -size || x > WIDTH + size || y > HEIGHT + size) {
-                enemyBossesToRemove.add(SpaceFXView.EnemyBoss.this);
-            }
-        }
-    }
-
-    private class EnemyBossExplosion {
-        private static final double FRAME_WIDTH  = 200 * SCALING_FACTOR;
-        private static final double FRAME_HEIGHT = 200 * SCALING_FACTOR;
-        private static final double FRAME_CENTER = FRAME_WIDTH * 0.5;
-        private static final int    MAX_FRAME_X  = 4;
-        private static final int    MAX_FRAME_Y  = 7;
-        private              double x;
-        private              double y;
-        private              double vX;
-        private              double vY;
-        private              double scale;
-        private              int    countX;
-        private              int    countY;
-
-
-        public EnemyBossExplosion(final double x, final double y, final double vX, final double vY, final double scale) {
-            this.x      = x;
-            this.y      = y;
-            this.vX     = vX;
-            this.vY     = vY;
-            this.scale  = scale;
-            this.countX = 0;
-            this.countY = 0;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            countX++;
-            if (countX == MAX_FRAME_X) {
-                countY++;
-                if (countX == MAX_FRAME_X && countY == MAX_FRAME_Y) {
-                    enemyBossExplosionsToRemove.add(SpaceFXView.EnemyBossExplosion.this);
-                }
-                countX = 0;
-                if (countY == MAX_FRAME_Y) {
-                    countY = 0;
-                }
-            }
-        }
-    }
-
-    private class Crystal {
-        private final Random  rnd            = new Random();
-        private final double  xVariation     = 2;
-        private final double  minSpeedY      = 2;
-        private final double  minRotationR   = 0.1;
-        private       Image   image;
-        private       double  x;
-        private       double  y;
-        private       double  width;
-        private       double  height;
-        private       double  size;
-        private       double  imgCenterX;
-        private       double  imgCenterY;
-        private       double  radius;
-        private       double  cX;
-        private       double  cY;
-        private       double  rot;
-        private       double  vX;
-        private       double  vY;
-        private       double  vR;
-        private       boolean rotateRight;
-        private       double  vYVariation;
-
-
-        public Crystal(final Image image) {
-            // Image
-            this.image = image;
-            init();
-        }
-
-
-        private void init() {
-            // Position
-            x   = rnd.nextDouble() * WIDTH;
-            y   = -image.getHeight();
-            rot = 0;
-
-            // Random Speed
-            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
-
-            width      = image.getWidth();
-            height     = image.getHeight();
-            size       = width > height ? width : height;
-            radius     = size * 0.5;
-            imgCenterX = image.getWidth() * 0.5;
-            imgCenterY = image.getHeight() * 0.5;
-
-            // Velocity
-            if (x < FIRST_QUARTER_WIDTH) {
-                vX = rnd.nextDouble() * VELOCITY_FACTOR_X;
-            } else if (x > LAST_QUARTER_WIDTH) {
-                vX = -rnd.nextDouble() * VELOCITY_FACTOR_X;
-            } else {
-                vX = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
-            }
-            vY          = (((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y;
-            vR          = (((rnd.nextDouble()) * 0.5) + minRotationR) * VELOCITY_FACTOR_R;
-            rotateRight = rnd.nextBoolean();
-        }
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            cX = x + imgCenterX;
-            cY = y + imgCenterY;
-
-            if (rotateRight) {
-                rot += vR;
-                if (rot > 360) { rot = 0; }
-            } else {
-                rot -= vR;
-                if (rot < 0) { rot = 360; }
-            }
-
-            // Respawn asteroid
-            if(x < -size || x - radius > WIDTH || y - height > HEIGHT) {
-                crystalsToRemove.add(SpaceFXView.Crystal.this);
-            }
-        }
-    }
-
-    private class EnemyTorpedo {
-        private final Image  image;
-        private       double x;
-        private       double y;
-        private       double width;
-        private       double height;
-        private       double size;
-        private       double radius;
-        private       double vX;
-        private       double vY;
-
-
-        public EnemyTorpedo(final Image image, final double x, final double y, final double vX, final double vY) {
-            this.image  = image;
-            this.x      = x - image.getWidth() / 2.0;
-            this.y      = y;
-            this.width  = image.getWidth();
-            this.height = image.getHeight();
-            this.size   = width > height ? width : height;
-            this.radius = size * 0.5;
-            this.vX     = vX;
-            this.vY     = vY;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            if (!hasBeenHit) {
-                boolean hit;
-                if (spaceShip.shield) {
-                    hit = isHitCircleCircle(x, y, radius, spaceShip.x, spaceShip.y, deflectorShieldRadius);
-                } else {
-                    hit = isHitCircleCircle(x, y, radius, spaceShip.x, spaceShip.y, spaceShip.radius);
-                }
-                if (hit) {
-                    enemyTorpedosToRemove.add(SpaceFXView.EnemyTorpedo.this);
-                    if (spaceShip.shield) {
-                    } else {
-                        hasBeenHit = true;
-                        noOfLifes--;
-                        if (0 == noOfLifes) {
-                            gameOver();
-                        }
-                    }
-                }
-            } else if (y > HEIGHT) {
-                enemyTorpedosToRemove.add(SpaceFXView.EnemyTorpedo.this);
-            }
-        }
-    }
-
-    private class EnemyBossTorpedo {
-        private final Image  image;
-        private       double x;
-        private       double y;
-        private       double width;
-        private       double height;
-        private       double size;
-        private       double radius;
-        private       double vX;
-        private       double vY;
-
-
-        public EnemyBossTorpedo(final Image image, final double x, final double y, final double vX, final double vY) {
-            this.image  = image;
-            this.x      = x - image.getWidth() / 2.0;
-            this.y      = y;
-            this.width  = image.getWidth();
-            this.height = image.getHeight();
-            this.size   = width > height ? width : height;
-            this.radius = size * 0.5;
-            this.vX     = vX;
-            this.vY     = vY;
-        }
-
-
-        private void update() {
-            x += vX;
-            y += vY;
-
-            if (!hasBeenHit) {
-                boolean hit;
-                if (spaceShip.shield) {
-                    hit = isHitCircleCircle(x, y, radius, spaceShip.x, spaceShip.y, deflectorShieldRadius);
-                } else {
-                    hit = isHitCircleCircle(x, y, radius, spaceShip.x, spaceShip.y, spaceShip.radius);
-                }
-                if (hit) {
-                    enemyBossTorpedosToRemove.add(SpaceFXView.EnemyBossTorpedo.this);
-                    if (spaceShip.shield) {
-                    } else {
-                        hasBeenHit = true;
-                        noOfLifes--;
-                        if (0 == noOfLifes) {
-                            gameOver();
-                        }
-                    }
-                }
-            } else if (y > HEIGHT) {
-                enemyBossTorpedosToRemove.add(SpaceFXView.EnemyBossTorpedo.this);
-            }
-        }
-    }
 
+    // ******************** Space Object Classes ******************************
     private class Player implements Comparable<SpaceFXView.Player> {
         private final String id;
         private       String name;
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.Arrays;
+
+
+/**
+ * Uniform grid broad phase for circle collisions.
+ * Items are stored in the cell that contains their center, positions outside
+ * of the grid are clamped to the border cells. A query visits all cells that
+ * are covered by the query circle grown by the largest radius in the grid and
+ * returns the ids of the items in these cells in ascending order.
+ * The grid is rebuilt every tick with clear(), add() and build() which is O(n)
+ * and does not allocate once the internal arrays have grown to their size.
+ */
+final class SpatialHash {
+    private final double cellSize;
+    private final int    cols;
+    private final int    rows;
+    private final int[]  cellStart;
+    private final int[]  cellFill;
+    private       int[]  itemCell;
+    private       int[]  cellItems;
+    private       int[]  result;
+    private       int    size;
+    private       double maxRadius;
+
+
+    // ******************** Constructors **************************************
+    SpatialHash(final double width, final double height, final double cellSize) {
+        this.cellSize  = cellSize;
+        this.cols      = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows      = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellStart = new int[cols * rows + 1];
+        this.cellFill  = new int[cols * rows];
+        this.itemCell  = new int[64];
+        this.cellItems = new int[64];
+        this.result    = new int[64];
+        this.size      = 0;
+        this.maxRadius = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    void clear() {
+        size      = 0;
+        maxRadius = 0;
+    }
+
+    /**
+     * Adds an item to the grid. Ids are given in the order of the calls to add()
+     * starting with 0 after clear(), so they match the index in the list the
+     * items have been taken from.
+     */
+    int add(final double x, final double y, final double radius) {
+        if (size == itemCell.length) {
+            itemCell  = Arrays.copyOf(itemCell, size * 2);
+            cellItems = Arrays.copyOf(cellItems, size * 2);
+            result    = Arrays.copyOf(result, size * 2);
+        }
+        itemCell[size] = row(y) * cols + col(x);
+        if (radius > maxRadius) { maxRadius = radius; }
+        return size++;
+    }
+
+    /**
+     * Sorts the added items into their cells, must be called before query()
+     */
+    void build() {
+        Arrays.fill(cellStart, 0);
+        for (int i = 0 ; i < size ; i++) { cellStart[itemCell[i] + 1]++; }
+        for (int i = 1 ; i < cellStart.length ; i++) { cellStart[i] += cellStart[i - 1]; }
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+        for (int i = 0 ; i < size ; i++) { cellItems[cellFill[itemCell[i]]++] = i; }
+    }
+
+    /**
+     * Collects the ids of all items that might touch the given circle.
+     * @return the number of candidates that are stored in getResult()
+     */
+    int query(final double x, final double y, final double radius) {
+        if (0 == size) { return 0; }
+        final double range    = radius + maxRadius;
+        final int    minCol   = col(x - range);
+        final int    maxCol   = col(x + range);
+        final int    minRow   = row(y - range);
+        final int    maxRow   = row(y + range);
+        int          noOfHits = 0;
+        for (int row = minRow ; row <= maxRow ; row++) {
+            for (int col = minCol ; col <= maxCol ; col++) {
+                final int cell = row * cols + col;
+                for (int i = cellStart[cell], end = cellStart[cell + 1] ; i < end ; i++) {
+                    result[noOfHits++] = cellItems[i];
+                }
+            }
+        }
+        if (minCol != maxCol || minRow != maxRow) { sort(noOfHits); }
+        return noOfHits;
+    }
+
+    int[] getResult() { return result; }
+
+    int getSize() { return size; }
+
+    private int col(final double x) {
+        final int col = (int) (x / cellSize);
+        return col < 0 ? 0 : col >= cols ? cols - 1 : col;
+    }
+
+    private int row(final double y) {
+        final int row = (int) (y / cellSize);
+        return row < 0 ? 0 : row >= rows ? rows - 1 : row;
+    }
+
+    // Candidate lists are usually short, insertion sort keeps them in list order without allocation
+    private void sort(final int length) {
+        if (length > 32) {
+            Arrays.sort(result, 0, length);
+            return;
+        }
+        for (int i = 1 ; i < length ; i++) {
+            final int id = result[i];
+            int       j  = i - 1;
+            while (j >= 0 && result[j] > id) {
+                result[j + 1] = result[j];
+                j--;
+            }
+            result[j + 1] = id;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Cache of pre rendered rotated and scaled sprites.
+ * Rotations are quantized to a fixed number of angles and scales to steps of
+ * 0.1 so that a rotated sprite can be drawn with a single axis aligned
+ * drawImage() call. Rendering needs a canvas snapshot per rotation, so it is
+ * never done while drawing. get() returns null for a missing rotation, the
+ * caller draws the sprite itself and the rotation is queued. prerender()
+ * renders in slices of a given time, e.g. in the idle time at the end of a
+ * frame, first the queued rotations, latest miss first, then all others in
+ * order until the memory budget is used up. A queued rotation that does not
+ * fit into the budget evicts the least recently used ones.
+ * Must only be used on the FX application thread.
+ */
+final class SpriteCache {
+    private static final int                NO_OF_SCALES = 11;
+    private        final int                noOfAngles;
+    private        final long               maxBytes;
+    private        final List<Image>        sprites;
+    private        final List<int[]>        scaleRanges;
+    private        final SnapshotParameters parameters;
+    private              WritableImage[]    slots;
+    private              long[]             lastUsed;
+    private              int[]              queue;
+    private              boolean[]          queued;
+    private              int                noOfQueued;
+    private              Canvas             canvas;
+    private              GraphicsContext    ctx;
+    private              int                nextSlot;
+    private              long               clock;
+    private              long               bytes;
+    private              long               hits;
+    private              long               misses;
+    private              long               evictions;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param noOfAngles number of rotations that are rendered per sprite and scale
+     * @param maxBytes   memory budget of all rendered sprites, 4 bytes per pixel
+     */
+    SpriteCache(final int noOfAngles, final long maxBytes) {
+        this.noOfAngles = Math.max(1, noOfAngles);
+        this.maxBytes   = maxBytes;
+        this.sprites     = new ArrayList<>();
+        this.scaleRanges = new ArrayList<>();
+        this.parameters  = new SnapshotParameters();
+        this.slots       = new WritableImage[0];
+        this.lastUsed    = new long[0];
+        this.queue       = new int[0];
+        this.queued      = new boolean[0];
+        this.canvas      = new Canvas(1, 1);
+        this.ctx         = canvas.getGraphicsContext2D();
+        this.nextSlot    = 0;
+        parameters.setFill(Color.TRANSPARENT);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Adds a sprite that is only drawn in its original size
+     * @return the id of the sprite that is used in get()
+     */
+    int add(final Image image) { return add(image, 1, 1); }
+    /**
+     * Adds a sprite to the cache, only the scales between minScale and maxScale are rendered
+     * @return the id of the sprite that is used in get()
+     */
+    int add(final Image image, final double minScale, final double maxScale) {
+        sprites.add(image);
+        scaleRanges.add(new int[] { scaleIndexOf(minScale), scaleIndexOf(maxScale) });
+        final int noOfSlots = sprites.size() * noOfAngles * NO_OF_SCALES;
+        slots    = Arrays.copyOf(slots, noOfSlots);
+        lastUsed = Arrays.copyOf(lastUsed, noOfSlots);
+        queue    = Arrays.copyOf(queue, noOfSlots);
+        queued   = Arrays.copyOf(queued, noOfSlots);
+        return sprites.size() - 1;
+    }
+
+    /**
+     * Renders missing rotations as long as there is time left
+     * @param nanos the time that may be spent
+     * @return true if there is nothing left to render
+     */
+    boolean prerender(final long nanos) {
+        final long deadline = System.nanoTime() + nanos;
+        while (!isComplete() && System.nanoTime() < deadline) {
+            if (noOfQueued > 0) {
+                final int slot = queue[--noOfQueued];
+                queued[slot] = false;
+                if (null == slots[slot] && makeRoom(slot)) { render(slot); }
+            } else {
+                final int slot = nextSlot++;
+                if (null == slots[slot] && isInScaleRange(slot) && bytes + bytesOf(slot) <= maxBytes) { render(slot); }
+            }
+        }
+        return isComplete();
+    }
+
+    /**
+     * Returns true if no rotation is queued and all others are rendered or do not fit into the memory budget
+     */
+    boolean isComplete() { return 0 == noOfQueued && (nextSlot == slots.length || bytes >= maxBytes); }
+
+    /**
+     * Returns the sprite rotated around its center, the center of the
+     * returned image is the center of the sprite
+     * @param id    the id that was returned by add()
+     * @param angle the rotation in degrees
+     * @param scale the scale between 0 and 1
+     * @return the rotated sprite or null if it is not rendered yet
+     */
+    Image get(final int id, final double angle, final double scale) {
+        double normalized = angle % 360;
+        if (normalized < 0) { normalized += 360; }
+        final int angleIndex = (int) Math.round(normalized / 360 * noOfAngles) % noOfAngles;
+        final int slot       = (id * noOfAngles + angleIndex) * NO_OF_SCALES + scaleIndexOf(scale);
+        lastUsed[slot] = ++clock;
+        if (null == slots[slot]) {
+            misses++;
+            if (!queued[slot]) {
+                queued[slot]        = true;
+                queue[noOfQueued++] = slot;
+            }
+            return null;
+        }
+        hits++;
+        return slots[slot];
+    }
+
+    long getHits() { return hits; }
+
+    long getMisses() { return misses; }
+
+    long getEvictions() { return evictions; }
+
+    long getBytes() { return bytes; }
+
+    double getHitRatio() {
+        final long lookups = hits + misses;
+        return 0 == lookups ? 0 : hits / (double) lookups;
+    }
+
+    private void render(final int slot) {
+        final Image  sprite = sprites.get(idOf(slot));
+        final double angle  = angleOf(slot);
+        final double scale  = scaleOf(slot);
+        final int    w      = widthOf(sprite, angle, scale);
+        final int    h      = heightOf(sprite, angle, scale);
+        if (canvas.getWidth() < w)  { canvas.setWidth(w); }
+        if (canvas.getHeight() < h) { canvas.setHeight(h); }
+        ctx.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        ctx.save();
+        ctx.translate(w * 0.5, h * 0.5);
+        ctx.rotate(angle);
+        ctx.scale(scale, scale);
+        ctx.drawImage(sprite, -sprite.getWidth() * 0.5, -sprite.getHeight() * 0.5);
+        ctx.restore();
+        parameters.setViewport(new Rectangle2D(0, 0, w, h));
+        slots[slot] = canvas.snapshot(parameters, new WritableImage(w, h));
+        bytes += bytesOf(slot);
+    }
+
+    // Evicts the least recently used rotations until the given one fits into the budget,
+    // only rotations that were used before the given one are evicted
+    private boolean makeRoom(final int slot) {
+        final long needed = bytesOf(slot);
+        if (needed > maxBytes) { return false; }
+        while (bytes + needed > maxBytes) {
+            int  lru    = -1;
+            long oldest = lastUsed[slot];
+            for (int i = 0 ; i < slots.length ; i++) {
+                if (null != slots[i] && lastUsed[i] < oldest) {
+                    oldest = lastUsed[i];
+                    lru    = i;
+                }
+            }
+            if (lru < 0) { return false; }
+            bytes     -= bytesOf(lru);
+            slots[lru] = null;
+            evictions++;
+        }
+        return true;
+    }
+
+    private boolean isInScaleRange(final int slot) {
+        final int[] scales     = scaleRanges.get(idOf(slot));
+        final int   scaleIndex = slot % NO_OF_SCALES;
+        return scaleIndex >= scales[0] && scaleIndex <= scales[1];
+    }
+
+    private int idOf(final int slot) { return slot / (noOfAngles * NO_OF_SCALES); }
+
+    private double angleOf(final int slot) { return slot / NO_OF_SCALES % noOfAngles * 360.0 / noOfAngles; }
+
+    private static double scaleOf(final int slot) { return slot % NO_OF_SCALES / (double) (NO_OF_SCALES - 1); }
+
+    private long bytesOf(final int slot) {
+        final Image  sprite = sprites.get(idOf(slot));
+        final double angle  = angleOf(slot);
+        final double scale  = scaleOf(slot);
+        return 4L * widthOf(sprite, angle, scale) * heightOf(sprite, angle, scale);
+    }
+
+    private static int widthOf(final Image sprite, final double angle, final double scale) {
+        final double sin = Math.abs(Math.sin(Math.toRadians(angle)));
+        final double cos = Math.abs(Math.cos(Math.toRadians(angle)));
+        return Math.max(1, (int) Math.ceil(sprite.getWidth() * scale * cos + sprite.getHeight() * scale * sin) + 2);
+    }
+
+    private static int heightOf(final Image sprite, final double angle, final double scale) {
+        final double sin = Math.abs(Math.sin(Math.toRadians(angle)));
+        final double cos = Math.abs(Math.cos(Math.toRadians(angle)));
+        return Math.max(1, (int) Math.ceil(sprite.getWidth() * scale * sin + sprite.getHeight() * scale * cos) + 2);
+    }
+
+    private static int scaleIndexOf(final double scale) { return (int) Math.round(Math.min(1, Math.max(0, scale)) * (NO_OF_SCALES - 1)); }
+
+    @Override public String toString() {
+        return new StringBuilder().append("SpriteCache: sprites=").append(sprites.size()).append(", angles=").append(noOfAngles)
+                                  .append(", memory=").append(bytes / 1024).append("kB/").append(maxBytes / 1024).append("kB")
+                                  .append(", hits=").append(hits).append(", misses=").append(misses).append(", evictions=").append(evictions)
+                                  .append(String.format(Locale.ROOT, ", hitRatio=%.3f", getHitRatio())).toString();
+    }
+}
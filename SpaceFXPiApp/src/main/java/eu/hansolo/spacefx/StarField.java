@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+
+/**
+ * Parallax star field that is rendered into a small WritableImage with a
+ * single PixelWriter call per frame. The image is a band of the full width
+ * but only tileHeight pixels high, the layer shows it stacked below itself
+ * until the screen is covered. Stars that leave the bottom of the band enter
+ * it again at the top, so they move on seamlessly into the next copy. The
+ * stars are kept in primitive arrays and are spread over layers that differ
+ * in speed, size and brightness. Only the pixels of the last frame are
+ * erased, and the write covers the band instead of the whole screen.
+ */
+final class StarField {
+    private static final double[]         LAYER_SPEEDS     = { 0.5, 1.0, 2.0 };
+    private static final int[]            LAYER_SIZES      = { 1, 1, 2 };
+    private static final double[]         LAYER_BRIGHTNESS = { 0.45, 0.7, 0.9 };
+    private static final double[]         LAYER_SHARES     = { 0.5, 0.3, 0.2 };
+    private        final int              width;
+    private        final int              tileHeight;
+    private        final WritableImage    image;
+    private        final Pane             tiles;
+    private        final int[]            pixels;
+    private        final int[]            colors;
+    private        final double[]         x;
+    private        final double[]         y;
+    private        final double[]         vY;
+    private        final int[]            layers;
+    private        final int[]            drawn;
+    private              int              noOfDrawn;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param width      the width of the screen
+     * @param height     the height of the screen
+     * @param tileHeight the height of the band that is repeated to cover the screen
+     * @param noOfStars  the number of stars on the screen
+     * @param rnd        the random numbers for the positions and speeds of the stars
+     */
+    StarField(final int width, final int height, final int tileHeight, final int noOfStars, final SplittableRandom rnd) {
+        final int noOfTileStars = (int) Math.ceil(noOfStars * tileHeight / (double) height);
+        this.width      = width;
+        this.tileHeight = tileHeight;
+        this.image      = new WritableImage(width, tileHeight);
+        this.tiles      = new Pane();
+        this.pixels     = new int[width * tileHeight];
+        this.colors     = new int[LAYER_SPEEDS.length];
+        this.x          = new double[noOfTileStars];
+        this.y          = new double[noOfTileStars];
+        this.vY         = new double[noOfTileStars];
+        this.layers     = new int[noOfTileStars];
+        int maxPixels = 0;
+        for (int layer = 0 ; layer < LAYER_SPEEDS.length ; layer++) {
+            // Premultiplied white
+            int alpha     = (int) Math.round(LAYER_BRIGHTNESS[layer] * 255);
+            colors[layer] = alpha << 24 | alpha << 16 | alpha << 8 | alpha;
+            maxPixels     = Math.max(maxPixels, LAYER_SIZES[layer] * LAYER_SIZES[layer]);
+        }
+        this.drawn = new int[noOfTileStars * maxPixels];
+
+        int star = 0;
+        for (int layer = 0 ; layer < LAYER_SPEEDS.length ; layer++) {
+            int noOfLayerStars = layer == LAYER_SPEEDS.length - 1 ? noOfTileStars - star : (int) (noOfTileStars * LAYER_SHARES[layer]);
+            for (int i = 0 ; i < noOfLayerStars ; i++, star++) {
+                x[star]      = rnd.nextInt(width);
+                y[star]      = rnd.nextDouble() * tileHeight;
+                vY[star]     = LAYER_SPEEDS[layer] * ((rnd.nextDouble() * 0.5) + 0.75);
+                layers[star] = layer;
+            }
+        }
+
+        for (int tileY = 0 ; tileY < height ; tileY += tileHeight) {
+            final ImageView tile = new ImageView(image);
+            tile.setLayoutY(tileY);
+            tiles.getChildren().add(tile);
+        }
+        tiles.setPrefSize(width, height);
+        tiles.setMaxSize(width, height);
+        tiles.setClip(new Rectangle(width, height));
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the node that shows the star field
+     */
+    Node getLayer() { return tiles; }
+
+    /**
+     * Moves all stars and draws them into the image
+     * @param speed the length of the frame relative to World.TICK_NANOS
+     */
+    void update(final double speed) {
+        erase();
+        for (int i = 0 ; i < x.length ; i++) {
+            y[i] += vY[i] * speed;
+            if (y[i] >= tileHeight) { y[i] %= tileHeight; }
+            final int layer = layers[i];
+            final int s     = LAYER_SIZES[layer];
+            final int px    = (int) x[i];
+            final int py    = (int) y[i];
+            final int color = colors[layer];
+            for (int dy = 0 ; dy < s ; dy++) {
+                // Rows below the band wrap to its top where the next copy continues
+                final int row = (py + dy) % tileHeight;
+                for (int dx = 0 ; dx < s ; dx++) {
+                    final int column = px + dx;
+                    if (column >= width) { continue; }
+                    final int index = row * width + column;
+                    pixels[index]       = color;
+                    drawn[noOfDrawn++] = index;
+                }
+            }
+        }
+        write();
+    }
+
+    /**
+     * Removes all stars from the image, they are drawn again with the next update
+     */
+    void clear() {
+        erase();
+        Arrays.fill(pixels, 0);
+        write();
+    }
+
+    private void erase() {
+        for (int i = 0 ; i < noOfDrawn ; i++) { pixels[drawn[i]] = 0; }
+        noOfDrawn = 0;
+    }
+
+    private void write() {
+        image.getPixelWriter().setPixels(0, 0, width, tileHeight, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.application.Application;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+
+/**
+ * Runs the game with scaled populations for a fixed number of ticks and
+ * prints throughput and latency percentiles. The settings are read from an
+ * optional properties file followed by key=value arguments that override it:
+ * <pre>
+ * config=FILE         properties file with the keys below
+ * asteroids=15        number of asteroids
+ * enemies=5           number of enemies
+ * stars=100           number of stars, only used with render=true
+ * ticks=10000         number of measured ticks
+ * warmup=1000         number of ticks before the measurement, headless only
+ * autofire=true       fire one torpedo per tick
+ * autopilot=false     steer the space ship with the DodgeAndShootAutopilot, replaces autofire
+ * report=0            print throughput, entities and used heap every report ticks, for soak runs
+ * invulnerable=true   the space ship does not lose lifes, so the game never ends
+ * bossinterval=20     seconds between two enemy boss attacks
+ * crystalinterval=25  seconds between two crystal spawns
+ * seed=42             seed of the run
+ * leakcheck=0         report stores that grow for this number of seconds, 0 disables the check
+ * render=false        run the game with the JavaFX renderer instead of headless
+ * </pre>
+ * Usage: java eu.hansolo.spacefx.StressTest asteroids=1500 enemies=500 ticks=20000
+ */
+public final class StressTest {
+    private static final long NANOS_PER_SECOND = 1_000_000_000l;
+
+
+    // ******************** Constructors **************************************
+    private StressTest() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws IOException {
+        final Properties config = new Properties();
+        for (String arg : args) {
+            if (arg.startsWith("config=")) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(arg.substring(7)), StandardCharsets.UTF_8)) { config.load(reader); }
+            }
+        }
+        for (String arg : args) {
+            final int index = arg.indexOf('=');
+            if (index < 1) {
+                System.err.println("Ignoring argument " + arg + ", expected key=value");
+                continue;
+            }
+            config.setProperty(arg.substring(0, index), arg.substring(index + 1));
+        }
+
+        final int     noOfAsteroids   = Integer.parseInt(config.getProperty("asteroids", Integer.toString(World.DEFAULT_NO_OF_ASTEROIDS)));
+        final int     noOfEnemies     = Integer.parseInt(config.getProperty("enemies", Integer.toString(World.DEFAULT_NO_OF_ENEMIES)));
+        final int     ticks           = Integer.parseInt(config.getProperty("ticks", "10000"));
+        final int     warmup          = Integer.parseInt(config.getProperty("warmup", "1000"));
+        final boolean autoPilot       = Boolean.parseBoolean(config.getProperty("autopilot", "false"));
+        final boolean autoFire        = !autoPilot && Boolean.parseBoolean(config.getProperty("autofire", "true"));
+        final int     report          = Integer.parseInt(config.getProperty("report", "0"));
+        final boolean invulnerable    = Boolean.parseBoolean(config.getProperty("invulnerable", "true"));
+        final double  bossInterval    = Double.parseDouble(config.getProperty("bossinterval", Double.toString(World.DEFAULT_ENEMY_BOSS_INTERVAL / (double) NANOS_PER_SECOND)));
+        final double  crystalInterval = Double.parseDouble(config.getProperty("crystalinterval", Double.toString(World.DEFAULT_CRYSTAL_INTERVAL / (double) NANOS_PER_SECOND)));
+        final long    seed            = Long.parseLong(config.getProperty("seed", Long.toString(System.nanoTime())));
+        final int     leakCheck       = Integer.parseInt(config.getProperty("leakcheck", "0"));
+
+        if (Boolean.parseBoolean(config.getProperty("render", "false"))) {
+            // The view reads its settings from system properties and quits after the given number of ticks
+            System.setProperty("spacefx.asteroids", Integer.toString(noOfAsteroids));
+            System.setProperty("spacefx.enemies", Integer.toString(noOfEnemies));
+            System.setProperty("spacefx.stars", config.getProperty("stars", "100"));
+            System.setProperty("spacefx.autofire", Boolean.toString(autoFire));
+            System.setProperty("spacefx.autopilot", Boolean.toString(autoPilot));
+            System.setProperty("spacefx.invulnerable", Boolean.toString(invulnerable));
+            System.setProperty("spacefx.bossinterval", Double.toString(bossInterval));
+            System.setProperty("spacefx.crystalinterval", Double.toString(crystalInterval));
+            System.setProperty("spacefx.seed", Long.toString(seed));
+            System.setProperty("spacefx.leakcheck", Integer.toString(leakCheck));
+            System.setProperty("spacefx.stress.ticks", Integer.toString(ticks));
+            Application.launch(SpaceFX.class);
+            return;
+        }
+
+        final World world = new World(noOfAsteroids, noOfEnemies, seed);
+        world.setEnemyBossInterval((long) (bossInterval * NANOS_PER_SECOND));
+        world.setCrystalInterval((long) (crystalInterval * NANOS_PER_SECOND));
+        world.setInvulnerable(invulnerable);
+        if (leakCheck > 0) { world.setLeakDetector(new LeakDetector(world.getStores(), leakCheck, System.out)); }
+        final Controls controls = new Controls();
+        controls.setAutoFire(autoFire);
+        final Autopilot autopilot = autoPilot ? new DodgeAndShootAutopilot() : null;
+        final Snapshot  snapshot  = new Snapshot();
+        final Histogram latency   = new Histogram("tick", "ns");
+        final Histogram entities  = new Histogram("entities", "count");
+
+        System.out.println(String.format(Locale.ROOT, "%d asteroids, %d enemies, %d ticks, autofire %b, autopilot %b, invulnerable %b, seed %d",
+                                         noOfAsteroids, noOfEnemies, ticks, autoFire, autoPilot, invulnerable, seed));
+        for (int i = 0 ; i < warmup ; i++) { step(world, controls, autopilot, snapshot); }
+
+        int  games       = 0;
+        long entityTicks = 0;
+        final long start = System.nanoTime();
+        for (int i = 0 ; i < ticks ; i++) {
+            final long tickStart = System.nanoTime();
+            step(world, controls, autopilot, snapshot);
+            latency.record(System.nanoTime() - tickStart);
+
+            final int noOfEntities = world.getNoOfEntities();
+            entities.record(noOfEntities);
+            entityTicks += noOfEntities;
+            if (world.isGameOver()) {
+                world.reset();
+                games++;
+            }
+            if (report > 0 && (i + 1) % report == 0) {
+                final double  elapsed = (System.nanoTime() - start) / (double) NANOS_PER_SECOND;
+                final Runtime runtime = Runtime.getRuntime();
+                System.out.println(String.format(Locale.ROOT, "%d ticks, %.1f s, %.0f ticks/s, %d entities, %d games ended, %.1f MB heap used", i + 1, elapsed, (i + 1) / elapsed,
+                                                 noOfEntities, games, (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0)));
+            }
+        }
+        final double seconds = (System.nanoTime() - start) / (double) NANOS_PER_SECOND;
+
+        final PrintStream out = System.out;
+        out.println(String.format(Locale.ROOT, "%.2f s, %.0f ticks/s, %.0f entities/s, %d games ended", seconds, ticks / seconds, entityTicks / seconds, games));
+        print(out, latency, 1_000.0, "us");
+        print(out, entities, 1, "");
+    }
+
+    /**
+     * Prints the percentiles of the given histogram on one line
+     * @param divisor converts the recorded values into the printed unit
+     */
+    static void print(final PrintStream out, final Histogram histogram, final double divisor, final String unit) {
+        out.println(String.format(Locale.ROOT, "%-9s mean %9.1f  p50 %9.1f  p90 %9.1f  p99 %9.1f  p99.9 %9.1f  max %9.1f %s", histogram.getName(),
+                                  histogram.getMean() / divisor, histogram.getValueAtPercentile(50) / divisor, histogram.getValueAtPercentile(90) / divisor,
+                                  histogram.getValueAtPercentile(99) / divisor, histogram.getValueAtPercentile(99.9) / divisor, histogram.getMax() / divisor, unit).stripTrailing());
+    }
+
+    private static void step(final World world, final Controls controls, final Autopilot autopilot, final Snapshot snapshot) {
+        if (null != autopilot) { autopilot.steer(world, controls); }
+        controls.applyTo(world);
+        world.tick(World.TICK_NANOS);
+        snapshot.capture(world, System.nanoTime());
+    }
+}
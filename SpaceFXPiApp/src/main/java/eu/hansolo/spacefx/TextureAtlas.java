@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Packs many small images into a few large pages so that the renderer draws
+ * from the same texture most of the time. Images are placed on shelves sorted
+ * by height with a transparent gutter between them so that smooth scaling does
+ * not bleed neighbouring pixels in. Images that would fill more than a quarter
+ * of a page keep their own texture, copying them would only cost memory.
+ */
+final class TextureAtlas {
+    private static final int          GUTTER = 1;
+    private        final Region[]     regions;
+    private        final List<Image>  pages;
+
+
+    // ******************** Constructors **************************************
+    private TextureAtlas(final Region[] regions, final List<Image> pages) {
+        this.regions = regions;
+        this.pages   = pages;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Packs the given images into pages of at most maxSize x maxSize pixels
+     * @param maxSize the maximum texture size, 2048 on the VideoCore IV of the Raspberry Pi
+     * @param images  the images to pack, the regions are returned in the same order
+     */
+    static TextureAtlas pack(final int maxSize, final Image... images) {
+        final int[] widths  = new int[images.length];
+        final int[] heights = new int[images.length];
+        Integer[]   order   = new Integer[images.length];
+        long        area    = 0;
+        int         widest  = 0;
+        for (int i = 0 ; i < images.length ; i++) {
+            widths[i]  = (int) Math.ceil(images[i].getWidth());
+            heights[i] = (int) Math.ceil(images[i].getHeight());
+            order[i]   = i;
+            if (isPackable(widths[i], heights[i], maxSize)) {
+                area  += (long) (widths[i] + GUTTER) * (heights[i] + GUTTER);
+                widest = Math.max(widest, widths[i] + GUTTER);
+            }
+        }
+        Arrays.sort(order, (i1, i2) -> Integer.compare(heights[i2], heights[i1]));
+
+        // Square-ish pages that are not wider than they need to be
+        final int pageWidth = Math.min(maxSize, Math.max(widest, (int) Math.ceil(Math.sqrt(area) * 1.1)));
+
+        // Place the images on shelves, a new page is started when a page is full
+        final int[]         pageOf      = new int[images.length];
+        final int[]         xs          = new int[images.length];
+        final int[]         ys          = new int[images.length];
+        final List<Integer> pageHeights = new ArrayList<>();
+        int page = 0, x = 0, y = 0, shelfHeight = 0;
+        for (int index : order) {
+            if (!isPackable(widths[index], heights[index], maxSize)) {
+                pageOf[index] = -1;
+                continue;
+            }
+            if (x + widths[index] > pageWidth) {
+                x           = 0;
+                y          += shelfHeight + GUTTER;
+                shelfHeight = 0;
+            }
+            if (y + heights[index] > maxSize) {
+                pageHeights.add(y - GUTTER);
+                page++;
+                x = 0;
+                y = 0;
+            }
+            pageOf[index] = page;
+            xs[index]     = x;
+            ys[index]     = y;
+            x            += widths[index] + GUTTER;
+            shelfHeight   = Math.max(shelfHeight, heights[index]);
+        }
+        pageHeights.add(y + shelfHeight);
+
+        // Copy the pixels
+        final List<Image>     pages  = new ArrayList<>();
+        final WritableImage[] canvas = new WritableImage[pageHeights.size()];
+        for (int i = 0 ; i < canvas.length ; i++) {
+            canvas[i] = new WritableImage(pageWidth, Math.max(1, pageHeights.get(i)));
+            pages.add(canvas[i]);
+        }
+        final WritablePixelFormat<IntBuffer> format  = PixelFormat.getIntArgbPreInstance();
+        final Region[]                       regions = new Region[images.length];
+        int[]                                buffer  = new int[0];
+        for (int i = 0 ; i < images.length ; i++) {
+            if (pageOf[i] < 0 || 0 == widths[i] || 0 == heights[i]) {
+                regions[i] = new Region(images[i], 0, 0, images[i].getWidth(), images[i].getHeight());
+                if (!pages.contains(images[i])) { pages.add(images[i]); }
+                continue;
+            }
+            if (buffer.length < widths[i] * heights[i]) { buffer = new int[widths[i] * heights[i]]; }
+            PixelReader reader = images[i].getPixelReader();
+            reader.getPixels(0, 0, widths[i], heights[i], format, buffer, 0, widths[i]);
+            canvas[pageOf[i]].getPixelWriter().setPixels(xs[i], ys[i], widths[i], heights[i], format, buffer, 0, widths[i]);
+            regions[i] = new Region(canvas[pageOf[i]], xs[i], ys[i], widths[i], heights[i]);
+        }
+        return new TextureAtlas(regions, pages);
+    }
+
+    /**
+     * Returns the region of the image with the given index in the array that was packed
+     */
+    Region getRegion(final int index) { return regions[index]; }
+
+    /**
+     * Returns the regions of length images starting at the given index
+     */
+    Region[] getRegions(final int from, final int length) { return Arrays.copyOfRange(regions, from, from + length); }
+
+    /**
+     * Returns all textures of this atlas including the images that had to keep their own texture
+     */
+    List<Image> getPages() { return pages; }
+
+    private static boolean isPackable(final int width, final int height, final int maxSize) {
+        return width <= maxSize && height <= maxSize && (long) width * height <= (long) maxSize * maxSize / 4;
+    }
+
+    @Override public String toString() {
+        long pixels = 0;
+        for (Image page : pages) { pixels += (long) page.getWidth() * (long) page.getHeight(); }
+        return new StringBuilder().append("TextureAtlas: images=").append(regions.length).append(", pages=").append(pages.size())
+                                  .append(", pixels=").append(pixels).toString();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Source rectangle of an image in a page of the atlas
+     */
+    static final class Region {
+        final Image  image;
+        final double x;
+        final double y;
+        final double width;
+        final double height;
+
+
+        Region(final Image image, final double x, final double y, final double width, final double height) {
+            this.image  = image;
+            this.x      = x;
+            this.y      = y;
+            this.width  = width;
+            this.height = height;
+        }
+    }
+}
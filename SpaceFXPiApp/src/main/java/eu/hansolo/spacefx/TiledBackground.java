@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import javafx.application.Platform;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Vertically scrolling background that is streamed in horizontal tiles.
+ * Only the tiles that cover the viewport and one tile ahead in scroll
+ * direction are kept in memory, missing tiles are loaded on a background
+ * thread and left blank until they are available. The tiles of the viewport
+ * the scrolling wraps around to are pinned, so they are already loaded when
+ * the viewport jumps there. The tiles come from a TileSource which can be backed by an image,
+ * a file or be generated procedurally.
+ */
+final class TiledBackground {
+    private static final int             FREE = Integer.MIN_VALUE;
+    private        final TileSource      source;
+    private        final double          viewportHeight;
+    private        final int             firstPinned;
+    private        final int             lastPinned;
+    private        final int[]           indices;
+    private        final Image[]         tiles;
+    private        final ExecutorService executor;
+    private              double          lastY;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param source         the source of the tiles
+     * @param viewportHeight the height of the visible part of the background
+     * @param wrapY          the y of the viewport the scrolling wraps around to
+     */
+    TiledBackground(final TileSource source, final double viewportHeight, final double wrapY) {
+        final int tileHeight = source.getTileHeight();
+        final int noOfPinned;
+        this.source         = source;
+        this.viewportHeight = viewportHeight;
+        this.firstPinned    = (int) Math.floor(wrapY / tileHeight);
+        this.lastPinned     = (int) Math.floor((wrapY + viewportHeight - 1) / tileHeight);
+        noOfPinned          = lastPinned - firstPinned + 1;
+        // Tiles of a partly visible viewport plus the lookahead plus the pinned tiles
+        this.indices        = new int[(int) Math.ceil(viewportHeight / tileHeight) + 2 + noOfPinned];
+        this.tiles          = new Image[indices.length];
+        this.executor       = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SpaceFX Background");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastY          = Double.NaN;
+        Arrays.fill(indices, FREE);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Draws the viewport that starts at the given y in the background, tiles
+     * that are not loaded yet are left out
+     */
+    void draw(final GraphicsContext ctx, final double y) {
+        final int tileHeight = source.getTileHeight();
+        final int first      = (int) Math.floor(y / tileHeight);
+        final int last       = (int) Math.floor((y + viewportHeight - 1) / tileHeight);
+        update(y, first, last);
+        for (int index = first ; index <= last ; index++) {
+            final Image tile = request(index);
+            if (null == tile) {
+                ctx.clearRect(0, index * (double) tileHeight - y, ctx.getCanvas().getWidth(), tileHeight);
+            } else {
+                ctx.drawImage(tile, 0, index * (double) tileHeight - y);
+            }
+        }
+    }
+
+    /**
+     * Starts loading the tiles of the viewport at the given y without drawing them
+     */
+    void prefetch(final double y) {
+        final int tileHeight = source.getTileHeight();
+        final int first      = (int) Math.floor(y / tileHeight);
+        final int last       = (int) Math.floor((y + viewportHeight - 1) / tileHeight);
+        update(y, first, last);
+        for (int index = first ; index <= last ; index++) { request(index); }
+    }
+
+    int getNoOfResidentTiles() {
+        int noOfTiles = 0;
+        for (Image tile : tiles) { if (null != tile) { noOfTiles++; } }
+        return noOfTiles;
+    }
+
+    /**
+     * Frees all tiles that are neither visible, pinned nor the next tile in scroll direction and requests the latter
+     */
+    private void update(final double y, final int first, final int last) {
+        final int lookahead = Double.isNaN(lastY) || y <= lastY ? first - 1 : last + 1;
+        lastY = y;
+        final int from = Math.min(first, lookahead);
+        final int to   = Math.max(last, lookahead);
+        for (int slot = 0 ; slot < indices.length ; slot++) {
+            final int index = indices[slot];
+            if (index != FREE && (index < from || index > to) && (index < firstPinned || index > lastPinned)) {
+                indices[slot] = FREE;
+                tiles[slot]   = null;
+            }
+        }
+        request(lookahead);
+        for (int index = firstPinned ; index <= lastPinned ; index++) { request(index); }
+    }
+
+    /**
+     * Returns the tile with the given index or null if it is still loading
+     */
+    private Image request(final int index) {
+        if (index < 0 || index >= source.getNoOfTiles()) { return null; }
+        int free = -1;
+        for (int slot = 0 ; slot < indices.length ; slot++) {
+            if (indices[slot] == index) { return tiles[slot]; }
+            if (free < 0 && indices[slot] == FREE) { free = slot; }
+        }
+        if (free < 0) { return null; }
+
+        final int slot = free;
+        indices[slot] = index;
+        executor.execute(() -> {
+            try {
+                final Image tile = source.loadTile(index);
+                Platform.runLater(() -> { if (indices[slot] == index) { tiles[slot] = tile; } });
+            } catch (IOException e) {
+                // The tile stays empty until it has been scrolled out of view
+            }
+        });
+        return null;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Provides the tiles of a background, tiles are loaded on a background thread
+     */
+    interface TileSource {
+        int getTileHeight();
+
+        int getNoOfTiles();
+
+        Image loadTile(int index) throws IOException;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.spacefx;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/**
+ * Lock free handoff of the latest state from one writer thread to one reader
+ * thread. The writer fills the back buffer and publishes it, the reader
+ * always gets the most recently published buffer. Neither side ever waits
+ * for the other and no objects are allocated after construction.
+ */
+final class TripleBuffer<T> {
+    private static final int           INDEX_MASK = 0b011;
+    private static final int           FRESH      = 0b100;
+    private        final Object[]      buffers;
+    private        final AtomicInteger middle;
+    private              int           back;
+    private              int           front;
+
+
+    // ******************** Constructors **************************************
+    TripleBuffer(final Supplier<T> factory) {
+        this.buffers = new Object[] { factory.get(), factory.get(), factory.get() };
+        this.back    = 0;
+        this.middle  = new AtomicInteger(1);
+        this.front   = 2;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the buffer the writer fills next, only to be called by the writer
+     */
+    @SuppressWarnings("unchecked")
+    T getBack() { return (T) buffers[back]; }
+
+    /**
+     * Makes the back buffer available to the reader, only to be called by the writer
+     */
+    void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published buffer, only to be called by the reader.
+     * The returned buffer stays untouched by the writer until the next call.
+     */
+    @SuppressWarnings("unchecked")
+    T getFront() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}
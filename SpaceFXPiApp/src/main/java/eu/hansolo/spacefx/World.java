@@ -0,0 +1,1132 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+
+/**
+ * Headless game simulation without any JavaFX dependency.
+ * The world owns all game objects and advances them by one fixed time step
+ * per call of tick(). Rendering is done by SpaceFXView which only reads the
+ * state of the world.
+ */
+public class World {
+    static final         double                         SCALING_FACTOR                 = 0.5;
+    public  static final double                         WIDTH                          = 700 * SCALING_FACTOR;
+    public  static final double                         HEIGHT                         = 900 * SCALING_FACTOR;
+    public  static final long                           TICK_NANOS                     = 0_033_333_333l; // all velocities are defined per TICK_NANOS
+    public  static final int                            DEFAULT_NO_OF_ASTEROIDS        = 15;
+    public  static final int                            DEFAULT_NO_OF_ENEMIES          = 5;
+    public  static final long                           DEFAULT_ENEMY_BOSS_INTERVAL    = 20_000_000_000l;
+    public  static final long                           DEFAULT_CRYSTAL_INTERVAL       = 25_000_000_000l;
+    static final         int                            LIFES                          = 5;
+    static final         int                            SHIELDS                        = 10;
+    static final         long                           DEFLECTOR_SHIELD_TIME          = 5_000_000_000l;
+    static final         int                            MAX_NO_OF_ROCKETS              = 3;
+    private static final double                         VELOCITY_FACTOR_X              = 0.7;
+    private static final double                         VELOCITY_FACTOR_Y              = 0.6;
+    private static final double                         VELOCITY_FACTOR_R              = 1.0;
+    private static final double                         TORPEDO_SPEED                  = 6 * VELOCITY_FACTOR_Y;
+    private static final double                         ROCKET_SPEED                   = 4 * VELOCITY_FACTOR_Y;
+    private static final double                         ENEMY_TORPEDO_SPEED            = 5 * VELOCITY_FACTOR_Y;
+    private static final double                         ENEMY_BOSS_TORPEDO_SPEED       = 6 * VELOCITY_FACTOR_Y;
+    private static final int                            ENEMY_FIRE_SENSITIVITY         = 10;
+    private static final double                         FIRST_QUARTER_WIDTH            = WIDTH * 0.25;
+    private static final double                         LAST_QUARTER_WIDTH             = WIDTH * 0.75;
+    private static final double                         CELL_SIZE                      = 64 * SCALING_FACTOR;
+    private static final int                            TORPEDO_CAPACITY               = 128;
+    private static final int                            ROCKET_CAPACITY                = 8;
+    private static final int                            ENEMY_TORPEDO_CAPACITY         = 32;
+    private static final int                            ENEMY_BOSS_TORPEDO_CAPACITY    = 32;
+    private static final int                            ANIMATION_CAPACITY             = 128;
+    private static final int                            ENEMY_BOSS_POOL_SIZE           = 4;
+    private static final int                            CRYSTAL_POOL_SIZE              = 2;
+    //----------- Sprite sizes as they result from loading the images in SpaceFXView with preserveRatio
+    static final         double[]                       ASTEROID_WIDTHS                = { 140 * SCALING_FACTOR, 140 * SCALING_FACTOR, 140 * SCALING_FACTOR, 110 * SCALING_FACTOR, 100 * SCALING_FACTOR, 120 * SCALING_FACTOR,
+                                                                                            110 * SCALING_FACTOR, 100 * SCALING_FACTOR, 130 * SCALING_FACTOR, 120 * SCALING_FACTOR, 140 * SCALING_FACTOR };
+    static final         double[]                       ASTEROID_HEIGHTS               = { 140 * SCALING_FACTOR, 140 * 562.0 / 709.0 * SCALING_FACTOR, 140 * SCALING_FACTOR, 110 * SCALING_FACTOR, 100 * SCALING_FACTOR, 120 * SCALING_FACTOR,
+                                                                                            110 * SCALING_FACTOR, 100 * SCALING_FACTOR, 130 * SCALING_FACTOR, 120 * SCALING_FACTOR, 140 * SCALING_FACTOR };
+    static final         double[]                       ENEMY_SIZES                    = { 56 * SCALING_FACTOR, 50 * SCALING_FACTOR, 68 * SCALING_FACTOR };
+    static final         double                         ASTEROID_MIN_SCALE             = 0.2;
+    static final         double                         ASTEROID_SCALE_RANGE           = 0.6;
+    static final         double                         ENEMY_BOSS_SIZE                = 100 * SCALING_FACTOR;
+    static final         double                         CRYSTAL_SIZE                   = 100 * SCALING_FACTOR;
+    static final         double                         SPACESHIP_SIZE                 = 48 * SCALING_FACTOR;
+    static final         double                         DEFLECTOR_SHIELD_SIZE          = 100 * SCALING_FACTOR;
+    static final         double                         TORPEDO_WIDTH                  = 17 * SCALING_FACTOR;
+    static final         double                         TORPEDO_HEIGHT                 = 20 * SCALING_FACTOR;
+    static final         double                         ROCKET_WIDTH                   = 50 * 131.0 / 388.0 * SCALING_FACTOR;
+    static final         double                         ROCKET_HEIGHT                  = 50 * SCALING_FACTOR;
+    static final         double                         ENEMY_TORPEDO_SIZE             = 21 * SCALING_FACTOR;
+    static final         double                         ENEMY_BOSS_TORPEDO_WIDTH       = 20 * SCALING_FACTOR;
+    static final         double                         ENEMY_BOSS_TORPEDO_HEIGHT      = 26 * SCALING_FACTOR;
+    static final         double                         EXPLOSION_FRAME_SIZE           = 192 * SCALING_FACTOR;
+    static final         double                         ASTEROID_EXPLOSION_FRAME_SIZE  = 256 * SCALING_FACTOR;
+    static final         double                         ROCKET_EXPLOSION_FRAME_SIZE    = 128 * SCALING_FACTOR;
+    static final         double                         CRYSTAL_EXPLOSION_FRAME_SIZE   = 100 * SCALING_FACTOR;
+    static final         double                         BOSS_EXPLOSION_FRAME_SIZE      = 200 * SCALING_FACTOR;
+    static final         double                         HIT_FRAME_SIZE                 = 80 * SCALING_FACTOR;
+    static final         double                         SPACESHIP_EXPLOSION_FRAME_SIZE = 100 * SCALING_FACTOR;
+    //----------- Sprite sheet animations, the id is the index in ANIMATION_SHEETS
+    static final         AnimationSheet                 EXPLOSION                      = new AnimationSheet(0, "Explosion", EXPLOSION_FRAME_SIZE, 5, 4);
+    static final         AnimationSheet                 ASTEROID_EXPLOSION             = new AnimationSheet(1, "AsteroidExplosion", ASTEROID_EXPLOSION_FRAME_SIZE, 8, 7);
+    static final         AnimationSheet                 ROCKET_EXPLOSION               = new AnimationSheet(2, "RocketExplosion", ROCKET_EXPLOSION_FRAME_SIZE, 4, 7);
+    static final         AnimationSheet                 CRYSTAL_EXPLOSION              = new AnimationSheet(3, "CrystalExplosion", CRYSTAL_EXPLOSION_FRAME_SIZE, 4, 7);
+    static final         AnimationSheet                 ENEMY_BOSS_EXPLOSION           = new AnimationSheet(4, "EnemyBossExplosion", BOSS_EXPLOSION_FRAME_SIZE, 4, 7);
+    static final         AnimationSheet                 HIT                            = new AnimationSheet(5, "Hit", HIT_FRAME_SIZE, 5, 2);
+    static final         AnimationSheet                 ENEMY_BOSS_HIT                 = new AnimationSheet(6, "EnemyBossHit", HIT_FRAME_SIZE, 5, 2);
+    static final         AnimationSheet                 SPACESHIP_EXPLOSION            = new AnimationSheet(7, "SpaceShipExplosion", SPACESHIP_EXPLOSION_FRAME_SIZE, 8, 6);
+    static final         AnimationSheet[]               ANIMATION_SHEETS               = { EXPLOSION, ASTEROID_EXPLOSION, ROCKET_EXPLOSION, CRYSTAL_EXPLOSION, ENEMY_BOSS_EXPLOSION, HIT, ENEMY_BOSS_HIT, SPACESHIP_EXPLOSION };
+    //-------------------------------------------------------------------------
+
+    private final        int                            noOfAsteroids;
+    private final        int                            noOfEnemies;
+    private final        double                         deflectorShieldRadius          = DEFLECTOR_SHIELD_SIZE * 0.5;
+    private final        Collision                      collision                      = new Collision();
+    private final        Projectiles                    torpedos                       = new Projectiles("Torpedo", TORPEDO_WIDTH, TORPEDO_HEIGHT, TORPEDO_CAPACITY);
+    private final        Projectiles                    rockets                        = new Projectiles("Rocket", ROCKET_WIDTH, ROCKET_HEIGHT, ROCKET_CAPACITY);
+    private final        Projectiles                    enemyTorpedos                  = new Projectiles("EnemyTorpedo", ENEMY_TORPEDO_SIZE, ENEMY_TORPEDO_SIZE, ENEMY_TORPEDO_CAPACITY);
+    private final        Projectiles                    enemyBossTorpedos              = new Projectiles("EnemyBossTorpedo", ENEMY_BOSS_TORPEDO_WIDTH, ENEMY_BOSS_TORPEDO_HEIGHT, ENEMY_BOSS_TORPEDO_CAPACITY);
+    private final        Animations                     animations                     = new Animations("Animation", ANIMATION_SHEETS, ANIMATION_CAPACITY);
+    private final        Pool<EnemyBoss>                enemyBossPool                  = new Pool<>("EnemyBoss", ENEMY_BOSS_POOL_SIZE, EnemyBoss::new);
+    private final        Pool<Crystal>                  crystalPool                    = new Pool<>("Crystal", CRYSTAL_POOL_SIZE, Crystal::new);
+    private final        List<Pool<?>>                  pools                          = List.of(enemyBossPool, crystalPool);
+    private final        EntityList<EnemyBoss>          enemyBosses                    = new EntityList<>(enemyBossPool, ENEMY_BOSS_POOL_SIZE, EnemyBoss::isOutOfSight);
+    private final        EntityList<Crystal>            crystals                       = new EntityList<>(crystalPool, CRYSTAL_POOL_SIZE, Crystal::isOutOfSight);
+    private final        List<EntityStore>              stores                         = List.of(enemyBosses, crystals, torpedos, rockets, enemyTorpedos, enemyBossTorpedos, animations);
+    private              long                           seed;
+    private              SplittableRandom               rnd;
+    private              long                           enemyBossInterval              = DEFAULT_ENEMY_BOSS_INTERVAL;
+    private              long                           crystalInterval                = DEFAULT_CRYSTAL_INTERVAL;
+    private              boolean                        invulnerable;
+    private              LeakDetector                   leakDetector;
+    private              Asteroid[]                     asteroids;
+    private              Enemy[]                        enemies;
+    private              SpaceShip                      spaceShip;
+    private              SpaceShipExplosion             spaceShipExplosion;
+    private              SpatialHash                    torpedoGrid;
+    private              SpatialHash                    rocketGrid;
+    private              long                           score;
+    private              boolean                        hasBeenHit;
+    private              boolean                        gameOver;
+    private              int                            noOfLifes;
+    private              int                            noOfShields;
+    private              long                           now;
+    private              double                         speed;
+    private              long                           frameClock;
+    private              int                            frameSteps;
+    private              long                           lastShieldActivated;
+    private              long                           lastEnemyBossAttack;
+    private              long                           lastCrystal;
+
+
+    // ******************** Constructors **************************************
+    public World() {
+        this(DEFAULT_NO_OF_ASTEROIDS, DEFAULT_NO_OF_ENEMIES);
+    }
+    public World(final int noOfAsteroids, final int noOfEnemies) {
+        this(noOfAsteroids, noOfEnemies, System.nanoTime());
+    }
+    /**
+     * @param seed the seed of the spawning stream, the same seed and the same inputs give the same game
+     */
+    public World(final int noOfAsteroids, final int noOfEnemies, final long seed) {
+        this.noOfAsteroids = noOfAsteroids;
+        this.noOfEnemies   = noOfEnemies;
+        this.seed          = seed;
+        this.rnd           = RandomStream.SPAWNING.create(seed);
+        initTimeToLive();
+        init();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Every kind of entity may live twice as long as its slowest instance
+     * needs to cross the screen, the culling should always kill it earlier
+     */
+    private void initTimeToLive() {
+        torpedos.setTimeToLive(timeToLive(HEIGHT + 2 * TORPEDO_HEIGHT, TORPEDO_SPEED));
+        rockets.setTimeToLive(timeToLive(HEIGHT + 2 * ROCKET_HEIGHT, ROCKET_SPEED));
+        enemyTorpedos.setTimeToLive(timeToLive(HEIGHT + 2 * ENEMY_TORPEDO_SIZE, ENEMY_TORPEDO_SPEED));
+        enemyBossTorpedos.setTimeToLive(timeToLive(HEIGHT + 2 * ENEMY_BOSS_TORPEDO_HEIGHT, ENEMY_BOSS_TORPEDO_SPEED));
+        enemyBosses.setTimeToLive(timeToLive(HEIGHT + 2 * ENEMY_BOSS_SIZE, EnemyBoss.MIN_VELOCITY_Y));
+        crystals.setTimeToLive(timeToLive(HEIGHT + 2 * CRYSTAL_SIZE, Crystal.MIN_VELOCITY_Y));
+        int maxNoOfFrames = 0;
+        for (AnimationSheet sheet : ANIMATION_SHEETS) { maxNoOfFrames = Math.max(maxNoOfFrames, sheet.noOfFrames); }
+        animations.setTimeToLive(2 * maxNoOfFrames);
+    }
+
+    private static double timeToLive(final double distance, final double velocity) { return 2 * distance / velocity; }
+
+    private void init() {
+        asteroids                   = new Asteroid[noOfAsteroids];
+        enemies                     = new Enemy[noOfEnemies];
+        spaceShip                   = new SpaceShip();
+        spaceShipExplosion          = new SpaceShipExplosion(0, 0);
+        torpedoGrid                 = new SpatialHash(WIDTH, HEIGHT, CELL_SIZE);
+        rocketGrid                  = new SpatialHash(WIDTH, HEIGHT, CELL_SIZE);
+        score                       = 0;
+        hasBeenHit                  = false;
+        gameOver                    = false;
+        noOfLifes                   = LIFES;
+        noOfShields                 = SHIELDS;
+        now                         = 0;
+        speed                       = 1;
+        frameClock                  = 0;
+        frameSteps                  = 1;
+        lastShieldActivated         = 0;
+        lastEnemyBossAttack         = 0;
+        lastCrystal                 = 0;
+
+        initAsteroids();
+        initEnemies();
+    }
+
+    private void initAsteroids() {
+        for (int i = 0 ; i < noOfAsteroids ; i++) {
+            asteroids[i] = new Asteroid(rnd.nextInt(ASTEROID_WIDTHS.length));
+        }
+    }
+
+    private void initEnemies() {
+        for (int i = 0 ; i < noOfEnemies ; i ++) {
+            enemies[i] = new Enemy(rnd.nextInt(ENEMY_SIZES.length));
+        }
+    }
+
+    /**
+     * Resets the world to the state of a new world that was created with the
+     * given seed, so a game that is started like this can be replayed
+     */
+    public void reset(final long seed) {
+        this.seed = seed;
+        this.rnd  = RandomStream.SPAWNING.create(seed);
+        for (int i = 0, n = stores.size() ; i < n ; i++) { stores.get(i).clear(); }
+        init();
+    }
+
+    /**
+     * Resets the world to the state of a new game, the random numbers continue
+     * where the last game stopped
+     */
+    public void reset() {
+        for (int i = 0, n = stores.size() ; i < n ; i++) { stores.get(i).clear(); }
+        for (Asteroid asteroid : asteroids) { asteroid.respawn(); }
+        initEnemies();
+        spaceShip.respawn();
+        spaceShip.vX        = 0;
+        spaceShip.vY        = 0;
+        spaceShip.shield    = false;
+        hasBeenHit          = false;
+        gameOver            = false;
+        noOfLifes           = LIFES;
+        noOfShields         = SHIELDS;
+        score               = 0;
+        lastEnemyBossAttack = now;
+        lastCrystal         = now;
+    }
+
+
+    // ******************** Settings ******************************************
+    /**
+     * Sets the time between two enemy boss attacks, survives reset()
+     */
+    public void setEnemyBossInterval(final long nanos) { enemyBossInterval = nanos; }
+
+    public long getEnemyBossInterval() { return enemyBossInterval; }
+
+    /**
+     * Sets the time between two crystal spawns, survives reset()
+     */
+    public void setCrystalInterval(final long nanos) { crystalInterval = nanos; }
+
+    public long getCrystalInterval() { return crystalInterval; }
+
+    /**
+     * An invulnerable space ship still explodes when it is hit but does not
+     * lose a life, so the game never ends. Used to stress test long runs.
+     */
+    public void setInvulnerable(final boolean invulnerable) { this.invulnerable = invulnerable; }
+
+    public boolean isInvulnerable() { return invulnerable; }
+
+
+    // ******************** Controls ******************************************
+    public void setSpaceShipVX(final double vX) { spaceShip.vX = vX; }
+
+    public void setSpaceShipVY(final double vY) { spaceShip.vY = vY; }
+
+    public void activateShield() {
+        if (noOfShields > 0 && !spaceShip.shield) {
+            lastShieldActivated = now;
+            spaceShip.shield    = true;
+        }
+    }
+
+    public void fireTorpedo() { spawnTorpedo(spaceShip.x, spaceShip.y); }
+
+    public void fireRocket() {
+        // Max 3 rockets at the same time
+        if (rockets.count < MAX_NO_OF_ROCKETS) {
+            spawnRocket(spaceShip.x, spaceShip.y);
+        }
+    }
+
+
+    // ******************** Tick **********************************************
+    /**
+     * Advances the simulation by one time step.
+     * The given nanoseconds advance the simulation clock that is used for
+     * timed events like enemy boss attacks, crystal spawns and the deflector
+     * shield. All velocities are defined per TICK_NANOS and are scaled by the
+     * length of the step, the frames of the sprite sheets advance once per
+     * TICK_NANOS of simulation time. Every entity keeps its position of the
+     * previous tick so that a renderer can interpolate between both states.
+     * @param nanos the length of the time step in nanoseconds (usually TICK_NANOS)
+     */
+    public void tick(final long nanos) {
+        now        += nanos;
+        speed       = nanos / (double) TICK_NANOS;
+        frameClock += nanos;
+        frameSteps  = (int) (frameClock / TICK_NANOS);
+        frameClock -= frameSteps * TICK_NANOS;
+
+        updateBroadPhase();
+        updateAsteroids();
+        updateEnemies();
+        updateEnemyBosses();
+        updateCrystals();
+        updateProjectiles();
+        updateExplosions();
+        updateSpaceShip();
+        updateLifecycle();
+        compact();
+
+        if (now > lastEnemyBossAttack + enemyBossInterval) {
+            spawnEnemyBoss();
+            lastEnemyBossAttack = now;
+        }
+        if (now > lastCrystal + crystalInterval) {
+            spawnCrystal();
+            lastCrystal = now;
+        }
+
+        if (null != leakDetector) { leakDetector.sample(nanos); }
+    }
+
+    /**
+     * Rebuilds the grids of the torpedos and rockets. The ids in the grids are
+     * the indices in the stores which don't change before updateProjectiles().
+     */
+    void updateBroadPhase() {
+        torpedoGrid.clear();
+        for (int i = 0 ; i < torpedos.count ; i++) { torpedoGrid.add(torpedos.x[i], torpedos.y[i], torpedos.radius); }
+        torpedoGrid.build();
+
+        rocketGrid.clear();
+        for (int i = 0 ; i < rockets.count ; i++) { rocketGrid.add(rockets.x[i], rockets.y[i], rockets.radius); }
+        rocketGrid.build();
+    }
+
+    void updateAsteroids() {
+        for (int i = 0 ; i < noOfAsteroids ; i++) {
+            Asteroid asteroid = asteroids[i];
+            asteroid.update();
+
+            // Check for torpedo hits
+            int   noOfTorpedoCandidates = torpedoGrid.query(asteroid.cX, asteroid.cY, asteroid.radius);
+            int   noOfTorpedoHits       = collision.hits(asteroid.cX, asteroid.cY, asteroid.radius, torpedos.x, torpedos.y, torpedos.radius, torpedoGrid.getResult(), noOfTorpedoCandidates);
+            int[] torpedoHits           = collision.getResult();
+            for (int j = 0 ; j < noOfTorpedoHits ; j++) {
+                int torpedo = torpedoHits[j];
+                if (torpedos.isDead(torpedo)) { continue; }
+                asteroid.hits--;
+                if (asteroid.hits == 0) {
+                    animations.add(ASTEROID_EXPLOSION, asteroid.cX - ASTEROID_EXPLOSION.frameCenter * asteroid.scale, asteroid.cY - ASTEROID_EXPLOSION.frameCenter * asteroid.scale, asteroid.vX, asteroid.vY, asteroid.scale);
+                    score += asteroid.value;
+                    asteroid.respawn();
+                    torpedos.kill(torpedo);
+                } else {
+                    animations.add(HIT, torpedos.x[torpedo] - HIT.frameCenter, torpedos.y[torpedo] - HIT.frameHeight, asteroid.vX, asteroid.vY, 1.0);
+                    torpedos.kill(torpedo);
+                }
+            }
+
+            // Check for rocket hits
+            int   noOfRocketCandidates = rocketGrid.query(asteroid.cX, asteroid.cY, asteroid.radius);
+            int   noOfRocketHits      = collision.hits(asteroid.cX, asteroid.cY, asteroid.radius, rockets.x, rockets.y, rockets.radius, rocketGrid.getResult(), noOfRocketCandidates);
+            int[] rocketHits          = collision.getResult();
+            for (int j = 0 ; j < noOfRocketHits ; j++) {
+                int rocket = rocketHits[j];
+                if (rockets.isDead(rocket)) { continue; }
+                animations.add(ROCKET_EXPLOSION, asteroid.cX - ROCKET_EXPLOSION.frameCenter * asteroid.scale, asteroid.cY - ROCKET_EXPLOSION.frameCenter * asteroid.scale, asteroid.vX, asteroid.vY, asteroid.scale);
+                score += asteroid.value;
+                asteroid.respawn();
+                rockets.kill(rocket);
+            }
+
+            // Check for space ship hit
+            if (!hasBeenHit) {
+                boolean hit = Collision.isHit(spaceShip.x, spaceShip.y, getSpaceShipHitRadius(), asteroid.cX, asteroid.cY, asteroid.radius);
+                if (hit) {
+                    spaceShipExplosion.frame = 0;
+                    spaceShipExplosion.x     = spaceShip.x - SPACESHIP_EXPLOSION.frameWidth;
+                    spaceShipExplosion.y     = spaceShip.y - SPACESHIP_EXPLOSION.frameHeight;
+                    if (spaceShip.shield) {
+                        animations.add(ASTEROID_EXPLOSION, asteroid.cX - ASTEROID_EXPLOSION.frameCenter * asteroid.scale, asteroid.cY - ASTEROID_EXPLOSION.frameCenter * asteroid.scale, asteroid.vX, asteroid.vY, asteroid.scale);
+                    } else {
+                        spaceShipHit();
+                    }
+                    asteroid.respawn();
+                }
+            }
+        }
+    }
+
+    void updateEnemies() {
+        for (int i = 0 ; i < noOfEnemies ; i++) {
+            Enemy enemy = enemies[i];
+            enemy.update();
+
+            // Fire if spaceship is below enemy
+            if (enemy.y < spaceShip.y) {
+                if (enemy.x > spaceShip.x - ENEMY_FIRE_SENSITIVITY && enemy.x < spaceShip.x + ENEMY_FIRE_SENSITIVITY) {
+                    if (enemy.y - enemy.lastShotY > 15) {
+                        spawnEnemyTorpedo(enemy.x, enemy.y, enemy.vX, enemy.vY);
+                        enemy.lastShotY = enemy.y;
+                    }
+                }
+            }
+
+            // Check for torpedo hits
+            int   noOfTorpedoCandidates = torpedoGrid.query(enemy.x, enemy.y, enemy.radius);
+            int   noOfTorpedoHits       = collision.hits(enemy.x, enemy.y, enemy.radius, torpedos.x, torpedos.y, torpedos.radius, torpedoGrid.getResult(), noOfTorpedoCandidates);
+            int[] torpedoHits           = collision.getResult();
+            for (int j = 0 ; j < noOfTorpedoHits ; j++) {
+                int torpedo = torpedoHits[j];
+                if (torpedos.isDead(torpedo)) { continue; }
+                animations.add(EXPLOSION, enemy.x - EXPLOSION.frameWidth * 0.25, enemy.y - EXPLOSION.frameHeight * 0.25, enemy.vX, enemy.vY, 0.5);
+                score += enemy.value;
+                enemy.respawn();
+                torpedos.kill(torpedo);
+            }
+
+            // Check for rocket hits
+            int   noOfRocketCandidates = rocketGrid.query(enemy.x, enemy.y, enemy.radius);
+            int   noOfRocketHits      = collision.hits(enemy.x, enemy.y, enemy.radius, rockets.x, rockets.y, rockets.radius, rocketGrid.getResult(), noOfRocketCandidates);
+            int[] rocketHits          = collision.getResult();
+            for (int j = 0 ; j < noOfRocketHits ; j++) {
+                int rocket = rocketHits[j];
+                if (rockets.isDead(rocket)) { continue; }
+                animations.add(ROCKET_EXPLOSION, enemy.x - ROCKET_EXPLOSION.frameWidth * 0.25, enemy.y - ROCKET_EXPLOSION.frameHeight * 0.25, enemy.vX, enemy.vY, 0.5);
+                score += enemy.value;
+                enemy.respawn();
+                rockets.kill(rocket);
+            }
+
+            // Check for space ship hit
+            if (!hasBeenHit) {
+                boolean hit = Collision.isHit(spaceShip.x, spaceShip.y, getSpaceShipHitRadius(), enemy.x, enemy.y, enemy.radius);
+                if (hit) {
+                    if (spaceShip.shield) {
+                        animations.add(EXPLOSION, enemy.x - EXPLOSION.frameWidth * 0.125, enemy.y - EXPLOSION.frameHeight * 0.125, enemy.vX, enemy.vY, 0.5);
+                    } else {
+                        spaceShipExplosion.frame = 0;
+                        spaceShipExplosion.x     = spaceShip.x - SPACESHIP_EXPLOSION.frameWidth;
+                        spaceShipExplosion.y     = spaceShip.y - SPACESHIP_EXPLOSION.frameHeight;
+                        spaceShipHit();
+                    }
+                    enemy.respawn();
+                }
+            }
+        }
+    }
+
+    void updateEnemyBosses() {
+        for (int i = 0 ; i < enemyBosses.count ; i++) {
+            EnemyBoss enemyBoss = enemyBosses.get(i);
+            enemyBoss.update();
+
+            // Fire if spaceship is below enemy
+            if (enemyBoss.x > spaceShip.x - ENEMY_FIRE_SENSITIVITY && enemyBoss.x < spaceShip.x + ENEMY_FIRE_SENSITIVITY) {
+                if (enemyBoss.y - enemyBoss.lastShotY > 15) {
+                    spawnEnemyBossTorpedo(enemyBoss.x, enemyBoss.y, enemyBoss.vX, enemyBoss.vY);
+                    enemyBoss.lastShotY = enemyBoss.y;
+                }
+            }
+
+            // Check for torpedo hits with enemy boss
+            int   noOfTorpedoCandidates = torpedoGrid.query(enemyBoss.x, enemyBoss.y, enemyBoss.radius);
+            int   noOfTorpedoHits       = collision.hits(enemyBoss.x, enemyBoss.y, enemyBoss.radius, torpedos.x, torpedos.y, torpedos.radius, torpedoGrid.getResult(), noOfTorpedoCandidates);
+            int[] torpedoHits           = collision.getResult();
+            for (int j = 0 ; j < noOfTorpedoHits ; j++) {
+                int torpedo = torpedoHits[j];
+                if (torpedos.isDead(torpedo)) { continue; }
+                enemyBoss.hits--;
+                if (enemyBoss.hits == 0) {
+                    animations.add(ENEMY_BOSS_EXPLOSION, enemyBoss.x - ENEMY_BOSS_EXPLOSION.frameWidth * 0.25, enemyBoss.y - ENEMY_BOSS_EXPLOSION.frameHeight * 0.25, enemyBoss.vX, enemyBoss.vY, 0.5);
+                    score += enemyBoss.value;
+                    enemyBosses.kill(i);
+                    torpedos.kill(torpedo);
+                } else {
+                    animations.add(ENEMY_BOSS_HIT, torpedos.x[torpedo] - ENEMY_BOSS_HIT.frameCenter, torpedos.y[torpedo] - ENEMY_BOSS_HIT.frameHeight, enemyBoss.vX, enemyBoss.vY, 1.0);
+                    torpedos.kill(torpedo);
+                }
+            }
+
+            // Check for rocket hits with enemy boss
+            int   noOfRocketCandidates = rocketGrid.query(enemyBoss.x, enemyBoss.y, enemyBoss.radius);
+            int   noOfRocketHits      = collision.hits(enemyBoss.x, enemyBoss.y, enemyBoss.radius, rockets.x, rockets.y, rockets.radius, rocketGrid.getResult(), noOfRocketCandidates);
+            int[] rocketHits          = collision.getResult();
+            for (int j = 0 ; j < noOfRocketHits ; j++) {
+                int rocket = rocketHits[j];
+                if (rockets.isDead(rocket)) { continue; }
+                animations.add(ENEMY_BOSS_EXPLOSION, enemyBoss.x - ENEMY_BOSS_EXPLOSION.frameWidth * 0.25, enemyBoss.y - ENEMY_BOSS_EXPLOSION.frameHeight * 0.25, enemyBoss.vX, enemyBoss.vY, 0.5);
+                score += enemyBoss.value;
+                enemyBosses.kill(i);
+                rockets.kill(rocket);
+            }
+
+            // Check for space ship hit with enemy boss
+            if (!hasBeenHit) {
+                boolean hit = Collision.isHit(spaceShip.x, spaceShip.y, getSpaceShipHitRadius(), enemyBoss.x, enemyBoss.y, enemyBoss.radius);
+                if (hit) {
+                    if (spaceShip.shield) {
+                        animations.add(EXPLOSION, enemyBoss.x - EXPLOSION.frameWidth * 0.125, enemyBoss.y - EXPLOSION.frameHeight * 0.125, enemyBoss.vX, enemyBoss.vY, 0.5);
+                    } else {
+                        spaceShipExplosion.frame = 0;
+                        spaceShipExplosion.x     = spaceShip.x - SPACESHIP_EXPLOSION.frameWidth;
+                        spaceShipExplosion.y     = spaceShip.y - SPACESHIP_EXPLOSION.frameHeight;
+                        spaceShipHit();
+                    }
+                    enemyBosses.kill(i);
+                }
+            }
+        }
+    }
+
+    void updateCrystals() {
+        for (int i = 0 ; i < crystals.count ; i++) {
+            Crystal crystal = crystals.get(i);
+            crystal.update();
+
+            // Check for space ship contact
+            boolean hit = Collision.isHit(spaceShip.x, spaceShip.y, getSpaceShipHitRadius(), crystal.cX, crystal.cY, crystal.radius);
+            if (hit) {
+                if (noOfShields <= SHIELDS - 1) { noOfShields++; }
+                animations.add(CRYSTAL_EXPLOSION, crystal.cX - CRYSTAL_EXPLOSION.frameCenter, crystal.cY - CRYSTAL_EXPLOSION.frameCenter, crystal.vX, crystal.vY, 1.0);
+                crystals.kill(i);
+            }
+        }
+    }
+
+    void updateProjectiles() {
+        torpedos.move(speed);
+        rockets.move(speed);
+        updateEnemyProjectiles(enemyTorpedos);
+        updateEnemyProjectiles(enemyBossTorpedos);
+    }
+
+    // Enemy torpedos hit the space ship, the ones that miss are culled when they leave the screen
+    private void updateEnemyProjectiles(final Projectiles projectiles) {
+        projectiles.move(speed);
+        if (!hasBeenHit) {
+            int   noOfShipHits = collision.hits(spaceShip.x, spaceShip.y, getSpaceShipHitRadius(), projectiles.x, projectiles.y, projectiles.radius, projectiles.count);
+            int[] shipHits     = collision.getResult();
+            for (int j = 0 ; j < noOfShipHits && !hasBeenHit ; j++) {
+                projectiles.kill(shipHits[j]);
+                if (!spaceShip.shield) {
+                    spaceShipHit();
+                }
+            }
+        }
+    }
+
+    void updateExplosions() {
+        animations.update(speed, frameSteps);
+    }
+
+    /**
+     * Kills the entities of all stores that left the screen or outlived their
+     * time to live. Asteroids and enemies are not stored, they respawn.
+     */
+    void updateLifecycle() {
+        for (int i = 0, n = stores.size() ; i < n ; i++) { stores.get(i).cull(WIDTH, HEIGHT, speed); }
+    }
+
+    void updateSpaceShip() {
+        if (noOfLifes <= 0) { return; }
+        if (hasBeenHit) {
+            for (int step = 0 ; step < frameSteps && hasBeenHit ; step++) { spaceShipExplosion.update(); }
+        } else {
+            spaceShip.update();
+            if (spaceShip.shield && now - lastShieldActivated > DEFLECTOR_SHIELD_TIME) {
+                spaceShip.shield = false;
+                noOfShields--;
+            }
+        }
+    }
+
+    /**
+     * Removes all entities that have been killed during this tick from their
+     * stores. Until then the indices of all entities are stable.
+     */
+    void compact() {
+        for (int i = 0, n = stores.size() ; i < n ; i++) { stores.get(i).compact(); }
+    }
+
+    private void spaceShipHit() {
+        hasBeenHit = true;
+        if (invulnerable) { return; }
+        noOfLifes--;
+        if (0 == noOfLifes) {
+            gameOver = true;
+        }
+    }
+
+
+    // Spawn different objects
+    void spawnTorpedo(final double x, final double y) {
+        torpedos.add(x, y - TORPEDO_HEIGHT, 0, -TORPEDO_SPEED);
+    }
+
+    void spawnRocket(final double x, final double y) {
+        rockets.add(x, y - ROCKET_HEIGHT, 0, -ROCKET_SPEED);
+    }
+
+    private void spawnEnemyTorpedo(final double x, final double y, final double vX, final double vY) {
+        double vFactor = ENEMY_TORPEDO_SPEED / vY; // make sure the speed is always the defined one
+        enemyTorpedos.add(x - ENEMY_TORPEDO_SIZE / 2.0, y, vFactor * vX, vFactor * vY);
+    }
+
+    void spawnEnemyBoss() {
+        enemyBosses.add(enemyBossPool.obtain().init());
+    }
+
+    void spawnCrystal() {
+        crystals.add(crystalPool.obtain().init());
+    }
+
+    private void spawnEnemyBossTorpedo(final double x, final double y, final double vX, final double vY) {
+        double vFactor = ENEMY_BOSS_TORPEDO_SPEED / vY; // make sure the speed is always the defined one
+        enemyBossTorpedos.add(x - ENEMY_BOSS_TORPEDO_WIDTH / 2.0, y, vFactor * vX, vFactor * vY);
+    }
+
+
+    // Hit test
+    private double getSpaceShipHitRadius() { return spaceShip.shield ? deflectorShieldRadius : spaceShip.radius; }
+
+
+    // ******************** State *********************************************
+    public long getScore() { return score; }
+
+    public long getSeed() { return seed; }
+
+    public int getNoOfLifes() { return noOfLifes; }
+
+    public int getNoOfShields() { return noOfShields; }
+
+    public boolean hasBeenHit() { return hasBeenHit; }
+
+    public boolean isGameOver() { return gameOver; }
+
+    public long getNow() { return now; }
+
+    /**
+     * Returns the remaining deflector shield time as a fraction between 0 and 1
+     * @return the remaining deflector shield time as a fraction between 0 and 1
+     */
+    public double getShieldTimeLeft() {
+        if (!spaceShip.shield) { return 0; }
+        return Math.max(0, 1.0 - (now - lastShieldActivated) / (double) DEFLECTOR_SHIELD_TIME);
+    }
+
+    public int getNoOfTorpedos() { return torpedos.count; }
+
+    public int getNoOfEntities() {
+        int noOfEntities = noOfAsteroids + noOfEnemies;
+        for (int i = 0, n = stores.size() ; i < n ; i++) { noOfEntities += stores.get(i).count; }
+        return noOfEntities;
+    }
+
+    /**
+     * Returns the stores of the enemy bosses, crystals, projectiles, explosions
+     * and hits with their high water marks which can be used to tune the capacities
+     * @return the entity stores of the world
+     */
+    public List<EntityStore> getStores() { return stores; }
+
+    /**
+     * Sets the detector that watches the stores for leaks after every tick or null to stop watching
+     */
+    public void setLeakDetector(final LeakDetector leakDetector) { this.leakDetector = leakDetector; }
+
+    /**
+     * Returns the object pools of the enemy bosses and crystals with their hit
+     * and miss counters which can be used to tune the pool sizes
+     * @return the object pools of the world
+     */
+    public List<Pool<?>> getPools() { return pools; }
+
+    Asteroid[] getAsteroids() { return asteroids; }
+
+    Enemy[] getEnemies() { return enemies; }
+
+    SpaceShip getSpaceShip() { return spaceShip; }
+
+    SpaceShipExplosion getSpaceShipExplosion() { return spaceShipExplosion; }
+
+    EntityList<EnemyBoss> getEnemyBosses() { return enemyBosses; }
+
+    EntityList<Crystal> getCrystals() { return crystals; }
+
+    Projectiles getTorpedos() { return torpedos; }
+
+    Projectiles getRockets() { return rockets; }
+
+    Projectiles getEnemyTorpedos() { return enemyTorpedos; }
+
+    Projectiles getEnemyBossTorpedos() { return enemyBossTorpedos; }
+
+    Animations getAnimations() { return animations; }
+
+
+    // ******************** Space Object Classes ******************************
+    class Asteroid {
+        private static final int     MAX_VALUE      = 10;
+        private final        double  xVariation     = 2;
+        private final        double  minSpeedY      = 2;
+        private final        double  minRotationR   = 0.1;
+                             int     imageIndex;
+                             double  x;
+                             double  y;
+                             double  prevX;
+                             double  prevY;
+                             double  width;
+                             double  height;
+                             double  size;
+                             double  imgCenterX;
+                             double  imgCenterY;
+                             double  radius;
+                             double  cX;
+                             double  cY;
+                             double  rot;
+                             double  vX;
+                             double  vY;
+                             double  vR;
+                             boolean rotateRight;
+                             double  scale;
+                             double  vYVariation;
+                             int     value;
+                             int     hits;
+
+
+        public Asteroid(final int imageIndex) {
+            // Image
+            this.imageIndex = imageIndex;
+            init();
+        }
+
+
+        private void init() {
+            double imageWidth  = ASTEROID_WIDTHS[imageIndex];
+            double imageHeight = ASTEROID_HEIGHTS[imageIndex];
+
+            // Position
+            x   = rnd.nextDouble() * WIDTH;
+            y   = -imageHeight;
+            rot = 0;
+
+            // Random Size
+            scale = (rnd.nextDouble() * ASTEROID_SCALE_RANGE) + ASTEROID_MIN_SCALE;
+
+            // No of hits (0.2 - 0.8)
+            hits = (int) (scale * 5.0);
+
+            // Value
+            value = (int) (1 / scale * MAX_VALUE);
+
+            // Random Speed
+            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
+
+            width      = imageWidth * scale;
+            height     = imageHeight * scale;
+            size       = width > height ? width : height;
+            radius     = size * 0.5;
+            imgCenterX = imageWidth * 0.5;
+            imgCenterY = imageHeight * 0.5;
+
+            // Velocity
+            vX          = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
+            vY          = (((rnd.nextDouble() * 1.5) + minSpeedY * 1/scale) * vYVariation) * VELOCITY_FACTOR_Y;
+            vR          = ((rnd.nextDouble() * 0.5) + minRotationR) * VELOCITY_FACTOR_R;
+            rotateRight = rnd.nextBoolean();
+
+            // Interpolation
+            prevX = x;
+            prevY = y;
+        }
+
+        private void respawn() {
+            this.imageIndex = rnd.nextInt(ASTEROID_WIDTHS.length);
+            init();
+        }
+
+        private void update() {
+            prevX = x;
+            prevY = y;
+            x += vX * speed;
+            y += vY * speed;
+
+            cX = x + imgCenterX;
+            cY = y + imgCenterY;
+
+            if (rotateRight) {
+                rot += vR * speed;
+                if (rot > 360) { rot = 0; }
+            } else {
+                rot -= vR * speed;
+                if (rot < 0) { rot = 360; }
+            }
+
+            // Respawn asteroid
+            if(x < -size || x - radius > WIDTH || y - height > HEIGHT) {
+                respawn();
+            }
+        }
+    }
+
+    class SpaceShip {
+                double  x;
+                double  y;
+                double  prevX;
+                double  prevY;
+                double  size;
+                double  radius;
+                double  width;
+                double  height;
+                double  vX;
+                double  vY;
+                boolean shield;
+
+
+        public SpaceShip() {
+            this.width  = SPACESHIP_SIZE;
+            this.height = SPACESHIP_SIZE;
+            this.size   = width > height ? width : height;
+            this.radius = size * 0.5;
+            this.vX     = 0;
+            this.vY     = 0;
+            this.shield = false;
+            respawn();
+        }
+
+
+        private void respawn() {
+            x     = WIDTH * 0.5;
+            y     = HEIGHT - 2 * height;
+            prevX = x;
+            prevY = y;
+        }
+
+        private void update() {
+            prevX = x;
+            prevY = y;
+            x += vX * speed;
+            y += vY * speed;
+            if (x + width * 0.5 > WIDTH) {
+                x = WIDTH - width * 0.5;
+            }
+            if (x - width * 0.5 < 0) {
+                x = width * 0.5;
+            }
+            if (y + height * 0.5 > HEIGHT) {
+                y = HEIGHT - height * 0.5;
+            }
+            if (y - height * 0.5< 0) {
+                y = height * 0.5;
+            }
+        }
+    }
+
+    class SpaceShipExplosion {
+        double x;
+        double y;
+        int    frame;
+
+
+        public SpaceShipExplosion(final double x, final double y) {
+            this.x     = x;
+            this.y     = y;
+            this.frame = 0;
+        }
+
+
+        private void update() {
+            frame++;
+            if (frame == SPACESHIP_EXPLOSION.noOfFrames) {
+                frame      = 0;
+                hasBeenHit = false;
+                spaceShip.respawn();
+            }
+        }
+    }
+
+    class Enemy {
+        private static final int     MAX_VALUE  = 49;
+        private final        double  xVariation = 1;
+        private final        double  minSpeedY  = 3;
+                             int     imageIndex;
+                             double  x;
+                             double  y;
+                             double  prevX;
+                             double  prevY;
+                             double  rot;
+                             double  width;
+                             double  height;
+                             double  size;
+                             double  radius;
+                             double  vX;
+                             double  vY;
+                             double  vYVariation;
+                             int     value;
+                             double  lastShotY;
+
+
+        public Enemy(final int imageIndex) {
+            // Image
+            this.imageIndex = imageIndex;
+            init();
+        }
+
+
+        private void init() {
+            // Position
+            x = rnd.nextDouble() * WIDTH;
+            y = -ENEMY_SIZES[imageIndex];
+
+            // Value
+            value = rnd.nextInt(MAX_VALUE) + 1;
+
+            // Random Speed
+            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
+
+            width  = ENEMY_SIZES[imageIndex];
+            height = ENEMY_SIZES[imageIndex];
+            size   = width > height ? width : height;
+            radius = size * 0.5;
+
+            // Velocity
+            if (x < FIRST_QUARTER_WIDTH) {
+                vX = (rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
+            } else if (x > LAST_QUARTER_WIDTH) {
+                vX = -(rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
+            } else {
+                vX = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
+            }
+            vY = (((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y;
+
+            // Rotation
+            rot = Math.toDegrees(Math.atan2(vY, vX)) - 90;
+
+            // Related to laser fire
+            lastShotY = 0;
+
+            // Interpolation
+            prevX = x;
+            prevY = y;
+        }
+
+        private void respawn() {
+            imageIndex = rnd.nextInt(ENEMY_SIZES.length);
+            init();
+        }
+
+        private void update() {
+            prevX = x;
+            prevY = y;
+            x += vX * speed;
+            y += vY * speed;
+
+            // Respawn Enemy
+            if (x < -size || x > WIDTH + size || y > HEIGHT + size) {
+                respawn();
+            }
+        }
+    }
+
+    class EnemyBoss {
+        private static final int     MAX_VALUE      = 99;
+        private static final double  MIN_VELOCITY_Y = 3 * 0.2 * VELOCITY_FACTOR_Y; // minSpeedY times the lowest vYVariation
+        private final        double  xVariation     = 1;
+        private final        double  minSpeedY      = 3;
+                             double  x;
+                             double  y;
+                             double  prevX;
+                             double  prevY;
+                             double  rot;
+                             double  width;
+                             double  height;
+                             double  size;
+                             double  radius;
+                             double  vX;
+                             double  vY;
+                             double  vYVariation;
+                             int     value;
+                             double  lastShotY;
+                             int     hits;
+
+
+        private EnemyBoss init() {
+            // Position
+            x = rnd.nextDouble() * WIDTH;
+            y = -ENEMY_BOSS_SIZE;
+
+            // Value
+            value = rnd.nextInt(MAX_VALUE) + 1;
+
+            // Random Speed
+            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
+
+            width  = ENEMY_BOSS_SIZE;
+            height = ENEMY_BOSS_SIZE;
+            size   = width > height ? width : height;
+            radius = size * 0.5;
+
+            // Velocity
+            if (x < FIRST_QUARTER_WIDTH) {
+                vX = (rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
+            } else if (x > LAST_QUARTER_WIDTH) {
+                vX = -(rnd.nextDouble() * 0.5) * VELOCITY_FACTOR_X;
+            } else {
+                vX = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
+            }
+            vY = (((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y;
+
+            // Rotation
+            rot = Math.toDegrees(Math.atan2(vY, vX)) - 90;
+
+            // Related to laser fire
+            lastShotY = 0;
+
+            // Interpolation
+            prevX = x;
+            prevY = y;
+
+            // No of hits
+            hits = 5;
+            return this;
+        }
+
+        private void update() {
+            prevX = x;
+            prevY = y;
+            x += vX * speed;
+            y += vY * speed;
+
+        }
+
+        private boolean isOutOfSight() {
+            return x < -size || x > WIDTH + size || y > HEIGHT + size;
+        }
+    }
+
+    class Crystal {
+        private static final double  MIN_VELOCITY_Y = 2 * 0.2 * VELOCITY_FACTOR_Y; // minSpeedY times the lowest vYVariation
+        private final        double  xVariation     = 2;
+        private final        double  minSpeedY      = 2;
+        private final        double  minRotationR   = 0.1;
+                             double  x;
+                             double  y;
+                             double  prevX;
+                             double  prevY;
+                             double  width;
+                             double  height;
+                             double  size;
+                             double  imgCenterX;
+                             double  imgCenterY;
+                             double  radius;
+                             double  cX;
+                             double  cY;
+                             double  rot;
+                             double  vX;
+                             double  vY;
+                             double  vR;
+                             boolean rotateRight;
+                             double  vYVariation;
+
+
+        private Crystal init() {
+            // Position
+            x   = rnd.nextDouble() * WIDTH;
+            y   = -CRYSTAL_SIZE;
+            rot = 0;
+
+            // Random Speed
+            vYVariation = (rnd.nextDouble() * 0.5) + 0.2;
+
+            width      = CRYSTAL_SIZE;
+            height     = CRYSTAL_SIZE;
+            size       = width > height ? width : height;
+            radius     = size * 0.5;
+            imgCenterX = width * 0.5;
+            imgCenterY = height * 0.5;
+
+            // Velocity
+            if (x < FIRST_QUARTER_WIDTH) {
+                vX = rnd.nextDouble() * VELOCITY_FACTOR_X;
+            } else if (x > LAST_QUARTER_WIDTH) {
+                vX = -rnd.nextDouble() * VELOCITY_FACTOR_X;
+            } else {
+                vX = ((rnd.nextDouble() * xVariation) - xVariation * 0.5) * VELOCITY_FACTOR_X;
+            }
+            vY          = (((rnd.nextDouble() * 1.5) + minSpeedY) * vYVariation) * VELOCITY_FACTOR_Y;
+            vR          = (((rnd.nextDouble()) * 0.5) + minRotationR) * VELOCITY_FACTOR_R;
+            rotateRight = rnd.nextBoolean();
+
+            // Interpolation
+            prevX = x;
+            prevY = y;
+            return this;
+        }
+
+        private void update() {
+            prevX = x;
+            prevY = y;
+            x += vX * speed;
+            y += vY * speed;
+
+            cX = x + imgCenterX;
+            cY = y + imgCenterY;
+
+            if (rotateRight) {
+                rot += vR * speed;
+                if (rot > 360) { rot = 0; }
+            } else {
+                rot -= vR * speed;
+                if (rot < 0) { rot = 360; }
+            }
+        }
+
+        private boolean isOutOfSight() {
+            return x < -size || x - radius > WIDTH || y - height > HEIGHT;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.spacefx;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the per tick cost of the simulation in World.
+ * The update benchmarks of single phases include rebuilding the broad phase
+ * grids because the hit checks depend on it.
+ * Entities killed by the previous call are compacted away and the number of
+ * torpedos is topped up before every call so that each measurement sees the
+ * configured amount of live projectiles.
+ * The compact benchmark marks the hits of the asteroids and moves the
+ * projectiles before it compacts, subtract updateAsteroids to get an idea of
+ * the cost of the compaction itself.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar WorldBenchmark -p noOfAsteroids=15,5000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldBenchmark {
+    private static final long   SEED               = 42;
+    private static final int    NO_OF_ENEMY_BOSSES = 3;
+    @Param({ "15", "150", "1500", "5000" })
+    private              int    noOfAsteroids;
+    @Param({ "0", "20", "200", "2000" })
+    private              int    noOfTorpedos;
+    private              Random rnd;
+    private              World  world;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rnd   = new Random(SEED);
+        world = new World(noOfAsteroids, World.DEFAULT_NO_OF_ENEMIES, SEED);
+        refill();
+    }
+
+
+    @Benchmark
+    public World tick() {
+        refill();
+        world.tick(World.TICK_NANOS);
+        return world;
+    }
+
+    @Benchmark
+    public World updateAsteroids() {
+        refill();
+        world.updateBroadPhase();
+        world.updateAsteroids();
+        return world;
+    }
+
+    @Benchmark
+    public World updateEnemies() {
+        refill();
+        world.updateBroadPhase();
+        world.updateEnemies();
+        return world;
+    }
+
+    @Benchmark
+    public World updateEnemyBosses() {
+        refill();
+        world.updateBroadPhase();
+        world.updateEnemyBosses();
+        return world;
+    }
+
+    @Benchmark
+    public World compact() {
+        refill();
+        world.updateBroadPhase();
+        world.updateAsteroids();
+        world.updateProjectiles();
+        world.compact();
+        return world;
+    }
+
+
+    private void refill() {
+        if (world.isGameOver()) { world.reset(); }
+        world.compact();
+        while (world.getNoOfTorpedos() < noOfTorpedos) {
+            world.spawnTorpedo(rnd.nextDouble() * World.WIDTH, rnd.nextDouble() * World.HEIGHT);
+        }
+        while (world.getRockets().getCount() < World.MAX_NO_OF_ROCKETS) {
+            world.spawnRocket(rnd.nextDouble() * World.WIDTH, rnd.nextDouble() * World.HEIGHT);
+        }
+        while (world.getEnemyBosses().getCount() < NO_OF_ENEMY_BOSSES) {
+            world.spawnEnemyBoss();
+        }
+    }
+}